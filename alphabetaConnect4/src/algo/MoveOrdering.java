@@ -0,0 +1,154 @@
+package algo;
+
+import model.Bitboard;
+import model.Connect4;
+import model.PlayerType;
+
+/**
+ * Order in which the columns are tried by alpha-beta : the sooner a good move is tried, the more branches are cut.<br>
+ * At a position, the columns are tried in this order :
+ * <ul>
+ *     <li>the best move recorded in the transposition table;</li>
+ *     <li>the killer moves of the ply : the last two columns that caused a cut at this number of tokens,
+ *     in another branch (a refutation is often the same in similar positions);</li>
+ *     <li>the other columns, by decreasing history (the columns that caused cuts, weighted by the depth of the cut),
+ *     and from the center to the borders for equal histories (a token in the center belongs to more alignments).</li>
+ * </ul>
+ * The cuts are counted, with the cuts given by the first column tried (the best order gives a cut with the first column).
+ *
+ * @author emmanueladam
+ */
+public class MoveOrdering {
+    /** Columns from the center to the borders */
+    public static final int[] CENTER_FIRST = centerFirst();
+
+    /** Number of plies of a game (number of tokens + 1) */
+    private static final int MAX_PLY = Connect4.WIDTH * Connect4.HEIGHT + 1;
+
+    /** Killer moves of each ply (number of tokens on the board), -1 if none */
+    private final int[][] killers = new int[MAX_PLY][2];
+
+    /** History of the cuts, [player type - 1][column] */
+    private final int[][] history = new int[2][Connect4.WIDTH];
+
+    /** Columns to try at each ply, filled by order (one array per ply, so no array is built during the search) */
+    private final int[][] orders = new int[MAX_PLY][Connect4.WIDTH];
+
+    /** Number of cuts */
+    private long nbCutoffs;
+
+    /** Number of cuts given by the first column tried */
+    private long nbFirstCutoffs;
+
+    public MoveOrdering() {
+        for (int[] k : killers) {
+            k[0] = k[1] = -1;
+        }
+    }
+
+    private static int[] centerFirst() {
+        int[] columns = new int[Connect4.WIDTH];
+        int center = Connect4.WIDTH / 2;
+        for (int i = 0; i < Connect4.WIDTH; i++) {
+            // center, center-1, center+1, center-2...
+            columns[i] = center + ((i % 2 == 0) ? i / 2 : -(i + 1) / 2);
+        }
+        return columns;
+    }
+
+    /** A new search begins : the history is halved, so the recent cuts count more than the old ones */
+    public void newSearch() {
+        for (int[] h : history) {
+            for (int j = 0; j < h.length; j++) {
+                h[j] /= 2;
+            }
+        }
+    }
+
+    /**
+     * Orders the playable columns of the position.
+     *
+     * @param board board of the game
+     * @param player next player
+     * @param tableMove best move of the transposition table, -1 if unknown
+     * @return the number of columns to try, they are given by getOrder(board.getNbMoves())
+     */
+    public int order(Bitboard board, PlayerType player, int tableMove) {
+        int ply = board.getNbMoves();
+        int[] order = orders[ply];
+        int nb = 0;
+        if (tableMove != -1 && board.canPlay(tableMove)) {
+            order[nb++] = tableMove;
+        }
+        for (int killer : killers[ply]) {
+            if (killer != -1 && board.canPlay(killer) && !contains(order, nb, killer)) {
+                order[nb++] = killer;
+            }
+        }
+        int first = nb;
+        int[] h = history[player.getType() - 1];
+        for (int column : CENTER_FIRST) {
+            if (board.canPlay(column) && !contains(order, first, column)) {
+                // insertion by decreasing history, after the columns of equal history (center first)
+                int i = nb++;
+                while (i > first && h[order[i - 1]] < h[column]) {
+                    order[i] = order[i - 1];
+                    i--;
+                }
+                order[i] = column;
+            }
+        }
+        return nb;
+    }
+
+    private static boolean contains(int[] order, int nb, int column) {
+        for (int i = 0; i < nb; i++) {
+            if (order[i] == column) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param ply number of tokens on the board
+     * @return the columns ordered at this ply by the last call to order
+     */
+    public int[] getOrder(int ply) {
+        return orders[ply];
+    }
+
+    /**
+     * Records a cut : the column becomes a killer move of the ply, and its history grows with depth*depth.
+     *
+     * @param player player of the column
+     * @param ply number of tokens on the board before the move
+     * @param column column that caused the cut
+     * @param depth depth searched under the position
+     * @param index rank of the column in the order (0 for the first one)
+     */
+    public void cutoff(PlayerType player, int ply, int column, int depth, int index) {
+        nbCutoffs++;
+        if (index == 0) nbFirstCutoffs++;
+        int[] k = killers[ply];
+        if (k[0] != column) {
+            k[1] = k[0];
+            k[0] = column;
+        }
+        history[player.getType() - 1][column] += depth * depth;
+    }
+
+    /** @return the number of cuts */
+    public long getNbCutoffs() {
+        return nbCutoffs;
+    }
+
+    /** @return the number of cuts given by the first column tried */
+    public long getNbFirstCutoffs() {
+        return nbFirstCutoffs;
+    }
+
+    /** Sets the counters of cuts to 0 */
+    public void resetStatistics() {
+        nbCutoffs = 0;
+        nbFirstCutoffs = 0;
+    }
+}
@@ -1,56 +1,273 @@
 package algo;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import model.Bitboard;
+import model.Connect4;
+import model.PlayerType;
 import model.Situation;
+import model.Zobrist;
 
 /**
- * Resolution class, it contains the alpha-beta algorithm.
+ * Resolution class, it contains the alpha-beta algorithm.<br>
+ * It runs on a board : the successors are generated during the recursion,
+ * by playing and undoing the moves on the board, so only the current path is in memory;
+ * the positions already searched are found in a transposition table.
  */
 public final class Resolution {
-    private Resolution() {
+    /** Board on which the moves are played and undone, it is back in its position after a search */
+    private final Bitboard board;
+
+    /** Values of the columns at the root of the last search (Integer.MIN_VALUE for a full column) */
+    private final int[] values = new int[Connect4.WIDTH];
+
+    /** Values of the positions already searched, kept from one search to the next */
+    private final TranspositionTable table;
+
+    /** Order of the columns tried by the search, with its killer moves and history */
+    private final MoveOrdering ordering = new MoveOrdering();
+
+    /** Values of the columns at the root of the search in progress */
+    private final int[] rootValues = new int[Connect4.WIDTH];
+
+    /** Number of situations met by the last search */
+    private long nbNodes;
+
+    /** Time (see System.nanoTime) at which the search must stop */
+    private long deadline = Long.MAX_VALUE;
+
+    /** true if the time is over : the search in progress is abandoned, its values are not recorded */
+    private boolean stopped;
+
+    /** Depth of the deepest search completed by the last call to bestMove */
+    private int completedDepth;
+
+    /** Number of positions of the last search whose value was given by the table */
+    private long nbTableCuts;
+
+    /**
+     * @param board board of the game, the machine is the next to play
+     * @param table transposition table (it can be shared by the searches of a game)
+     */
+    public Resolution(Bitboard board, TranspositionTable table) {
+        this.board = board;
+        this.table = table;
     }
 
     /**
-     * Alpha-beta function, determines the value of the node/situation.
-     * To retrieve the situation to take, scan the list of successors
-     * and take the first situation with the same estimate.
+     * @param board board of the game, the machine is the next to play
+     */
+    public Resolution(Bitboard board) {
+        this(board, new TranspositionTable(16));
+    }
+
+    /**
+     * Search of the best column for the machine, by alpha-beta on the board.
+     * To each column is associated its value (see getValues); after the best one, the values are only bounds.
      *
-     * @param node situation, state
-     * @param alpha minimum bound
-     * @param beta maximum bound
-     * @return estimate of the situation based on the opponent's play
+     * @param depth depth of the search (number of moves looked ahead)
+     * @return the best column, -1 if the grid is full
      */
-    public static int alphaBeta(final Situation node, final int alpha, final int beta) {
-        int bound = 0;
-        Thread.yield();
+    public int bestMove(int depth) {
+        startSearch(Long.MAX_VALUE);
+        int bestColumn = searchRoot(depth, -1);
+        System.arraycopy(rootValues, 0, values, 0, Connect4.WIDTH);
+        completedDepth = depth;
+        return bestColumn;
+    }
 
-        if (node.isLeaf()) {
-            bound = node.getHeuristic();
+    /**
+     * Search of the best column for the machine by iterative deepening : alpha-beta at depth 1, 2, 3...
+     * until the time is over. The column of the deepest search completed is kept
+     * (the search in progress at the end of the time is abandoned).<br>
+     * Each search begins with the best column of the previous one, and the table gives the next moves
+     * of the best line found, so they are tried first and most of the work of a level prunes the next one.
+     *
+     * @param budget time allowed, in milliseconds (the first level, at most 7 situations, is always completed
+     *               as the clock is read every 1024 situations)
+     * @param maxDepth maximal depth of the search
+     * @return the best column, -1 if the grid is full
+     */
+    public int bestMove(long budget, int maxDepth) {
+        startSearch(System.nanoTime() + budget * 1_000_000);
+        int bestColumn = -1;
+        completedDepth = 0;
+        int emptyCells = Connect4.WIDTH * Connect4.HEIGHT - board.getNbMoves();
+        for (int depth = 1; depth <= Math.min(maxDepth, emptyCells) && !stopped; depth++) {
+            int column = searchRoot(depth, bestColumn);
+            if (!stopped) {
+                bestColumn = column;
+                completedDepth = depth;
+                System.arraycopy(rootValues, 0, values, 0, Connect4.WIDTH);
+            }
         }
+        return bestColumn;
+    }
 
-        if (!node.isLeaf()) {
-            final ArrayList<Situation> successors = node.getSuccesseurs();
-            bound = node.isMax() ? alpha : beta;
-            int i = 0;
-            boolean found = false;
-
-            while (i < successors.size() && !found) {
-                final Situation successor = successors.get(i);
-                final int value = node.isMax() ? alphaBeta(successor, bound, beta) : alphaBeta(successor, alpha, bound);
-                successor.setH(value);
+    /**
+     * Initializes the counters and the end of the search.
+     *
+     * @param end time (see System.nanoTime) at which the search must stop
+     */
+    private void startSearch(long end) {
+        nbNodes = 0;
+        nbTableCuts = 0;
+        deadline = end;
+        stopped = false;
+        table.newSearch();
+        ordering.newSearch();
+        ordering.resetStatistics();
+        Arrays.fill(values, Integer.MIN_VALUE);
+    }
 
-                if (node.isMax() && value > bound) {
-                    bound = value;
-                    found = (bound >= beta);
+    /**
+     * Alpha-beta at the root of the search, the values of the columns are set in rootValues.
+     *
+     * @param depth depth of the search (number of moves looked ahead)
+     * @param firstColumn column to try first, -1 for the columns from the center to the borders
+     * @return the best column, -1 if the grid is full
+     */
+    private int searchRoot(int depth, int firstColumn) {
+        Arrays.fill(rootValues, Integer.MIN_VALUE);
+        int bestColumn = -1;
+        int bound = Integer.MIN_VALUE;
+        for (int i = -1; i < Connect4.WIDTH && !stopped; i++) {
+            int j = (i == -1 ? firstColumn : MoveOrdering.CENTER_FIRST[i]);
+            if (j != -1 && (i == -1 || j != firstColumn) && board.canPlay(j)) {
+                rootValues[j] = play(j, PlayerType.MACHINE, depth, bound, Integer.MAX_VALUE);
+                if (bestColumn == -1 || rootValues[j] > bound) {
+                    bound = rootValues[j];
+                    bestColumn = j;
                 }
+            }
+        }
+        if (bestColumn != -1 && !stopped) {
+            table.store(key(true), bound, depth, TranspositionTable.EXACT, bestColumn);
+        }
+        return bestColumn;
+    }
 
-                if (!node.isMax() && value < bound) {
-                    bound = value;
-                    found = (bound <= alpha);
+    /**
+     * Alpha-beta function on the board, determines the value of the current position.
+     *
+     * @param depth number of moves still to look ahead
+     * @param alpha minimum bound
+     * @param beta maximum bound
+     * @param max true if the machine is the next to play (its value is maximized)
+     * @return estimate of the position based on the opponent's play
+     */
+    public int alphaBeta(int depth, int alpha, int beta, boolean max) {
+        long key = key(max);
+        long entry = table.probe(key);
+        int tableMove = -1;
+        if (entry != 0) {
+            tableMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int value = TranspositionTable.value(entry);
+                int kind = TranspositionTable.kind(entry);
+                if (kind == TranspositionTable.EXACT
+                        || (kind == TranspositionTable.LOWER && value >= beta)
+                        || (kind == TranspositionTable.UPPER && value <= alpha)) {
+                    nbTableCuts++;
+                    return value;
                 }
-                i++;
             }
         }
+
+        PlayerType player = max ? PlayerType.MACHINE : PlayerType.PLAYER;
+        int bound = max ? alpha : beta;
+        int bestColumn = -1;
+        boolean found = false;
+        // the best move of the table, the killer moves, then the other columns by history (see MoveOrdering)
+        int ply = board.getNbMoves();
+        int nbColumns = ordering.order(board, player, tableMove);
+        int[] columns = ordering.getOrder(ply);
+        for (int i = 0; i < nbColumns && !found && !stopped; i++) {
+            int j = columns[i];
+            final int value = max ? play(j, player, depth, bound, beta) : play(j, player, depth, alpha, bound);
+            if (max && value > bound) {
+                bound = value;
+                bestColumn = j;
+                found = (bound >= beta);
+            }
+            if (!max && value < bound) {
+                bound = value;
+                bestColumn = j;
+                found = (bound <= alpha);
+            }
+            if (found && !stopped) ordering.cutoff(player, ply, j, depth, i);
+        }
+        boolean moved = nbColumns > 0;
+        // full grid
+        if (!moved) bound = Situation.evaluate(board);
+        // the value of an abandoned search is wrong, it is not recorded
+        if (stopped) return bound;
+
+        int kind = TranspositionTable.EXACT;
+        if (moved && bound <= alpha) kind = TranspositionTable.UPPER;
+        else if (moved && bound >= beta) kind = TranspositionTable.LOWER;
+        table.store(key, bound, depth, kind, bestColumn);
         return bound;
     }
+
+    /** @return the key of the position for the table : the key of the board, and the next player */
+    private long key(boolean max) {
+        return max ? board.getKey() ^ Zobrist.MACHINE_TO_PLAY : board.getKey();
+    }
+
+    /**
+     * Plays a column, evaluates the position reached, and undoes the move.
+     * A position where the player has won, or at the last level, is evaluated by Situation.evaluate.
+     *
+     * @return value of the position reached
+     */
+    private int play(int column, PlayerType player, int depth, int alpha, int beta) {
+        // the clock is read every 1024 situations
+        if ((++nbNodes & 0x3FF) == 0 && System.nanoTime() > deadline) {
+            stopped = true;
+        }
+        board.play(player, column);
+        int value;
+        if (depth <= 1 || board.isWinning(player)) {
+            value = Situation.evaluate(board);
+        } else {
+            value = alphaBeta(depth - 1, alpha, beta, player == PlayerType.PLAYER);
+        }
+        board.undo();
+        return value;
+    }
+
+    /**
+     * @return the values of the columns at the root of the last search (Integer.MIN_VALUE for a full column)
+     */
+    public int[] getValues() {
+        return values;
+    }
+
+    /**
+     * @return the order of the columns, with the statistics of the cuts of the last search
+     */
+    public MoveOrdering getOrdering() {
+        return ordering;
+    }
+
+    /**
+     * @return the depth of the deepest search completed by the last call to bestMove
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * @return the number of positions of the last search whose value was given by the table
+     */
+    public long getNbTableCuts() {
+        return nbTableCuts;
+    }
+
+    /**
+     * @return the number of situations met by the last search
+     */
+    public long getNbNodes() {
+        return nbNodes;
+    }
 }
@@ -0,0 +1,100 @@
+package algo;
+
+/**
+ * Transposition table : the values of the positions already searched, found from their Zobrist key
+ * (a position is reached by many orders of moves).<br>
+ * The table has a fixed size (a power of 2), an entry is a key and a long packing the value, the depth searched,
+ * the kind of value (exact, lower or upper bound), the best move and the search that wrote it.<br>
+ * No lock is used : the key is stored xored with the data, so an entry half written by another thread
+ * does not match its key and is ignored. An entry is replaced by a search at least as deep, or by a newer search.
+ *
+ * @author emmanueladam
+ */
+public class TranspositionTable {
+    /** The value is the exact value of the position */
+    public static final int EXACT = 0;
+    /** The value is a lower bound (the search was cut, the value is at least this one) */
+    public static final int LOWER = 1;
+    /** The value is an upper bound (no move reached alpha, the value is at most this one) */
+    public static final int UPPER = 2;
+
+    /** Keys of the entries, xored with their data */
+    private final long[] keys;
+
+    /** Data of the entries : value (bits 0-31), depth (32-39), kind (40-41), move + 1 (42-45), search (46-53) */
+    private final long[] data;
+
+    /** Mask giving the index of a key */
+    private final int mask;
+
+    /** Number of the current search, 8 bits */
+    private int search;
+
+    /**
+     * @param bits the table has 2^bits entries (16 bytes each)
+     */
+    public TranspositionTable(int bits) {
+        keys = new long[1 << bits];
+        data = new long[1 << bits];
+        mask = (1 << bits) - 1;
+    }
+
+    /** A new search begins : the entries of the previous ones can be replaced by less deep entries */
+    public void newSearch() {
+        search = (search + 1) & 0xFF;
+    }
+
+    /**
+     * @param key Zobrist key of the position
+     * @return the data of the position (read them with value, depth, kind and move), 0 if it is not in the table
+     */
+    public long probe(long key) {
+        int index = (int) key & mask;
+        long entry = data[index];
+        return (keys[index] ^ entry) == key ? entry : 0;
+    }
+
+    /**
+     * Records the value of a position, if its entry is empty, less deep, or written by a previous search.
+     *
+     * @param key Zobrist key of the position
+     * @param value value found
+     * @param depth depth of the search under the position (1 to 255)
+     * @param kind EXACT, LOWER or UPPER
+     * @param move best column, -1 if unknown
+     */
+    public void store(long key, int value, int depth, int kind, int move) {
+        int index = (int) key & mask;
+        long old = data[index];
+        if (old == 0 || search(old) != search || depth(old) <= depth) {
+            long entry = (value & 0xFFFFFFFFL) | (long) depth << 32 | (long) kind << 40
+                    | (long) (move + 1) << 42 | (long) search << 46;
+            data[index] = entry;
+            keys[index] = key ^ entry;
+        }
+    }
+
+    /** @return the value of an entry */
+    public static int value(long entry) {
+        return (int) entry;
+    }
+
+    /** @return the depth searched under the position of an entry */
+    public static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    /** @return the kind of value of an entry (EXACT, LOWER or UPPER) */
+    public static int kind(long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    /** @return the best column of an entry, -1 if unknown */
+    public static int move(long entry) {
+        return ((int) (entry >>> 42) & 0xF) - 1;
+    }
+
+    private static int search(long entry) {
+        return (int) (entry >>> 46) & 0xFF;
+    }
+}
@@ -0,0 +1,206 @@
+package model;
+
+/**
+ * Board of the game encoded in two longs, one per player.<br>
+ * The cell (row, column) is the bit column*(HEIGHT+1) + row : a column uses HEIGHT+1 bits,
+ * the top one is always empty (sentinel row), so that an alignment cannot go from a column to the next one.<br>
+ * A move and its cancellation are done in constant time, and four aligned tokens are found by shifts and ands.
+ *
+ * @author emmanueladam
+ */
+public class Bitboard {
+    /** Number of bits of a column (the cells + the sentinel) */
+    public static final int COLUMN_BITS = Connect4.HEIGHT + 1;
+
+    /** Shift between two neighbour cells of a column */
+    public static final int VERTICAL = 1;
+    /** Shift between two neighbour cells of a row */
+    public static final int HORIZONTAL = COLUMN_BITS;
+    /** Shift between two neighbour cells of a diagonal going up to the right */
+    public static final int DIAGONAL_UP = COLUMN_BITS + 1;
+    /** Shift between two neighbour cells of a diagonal going down to the right */
+    public static final int DIAGONAL_DOWN = COLUMN_BITS - 1;
+
+    /** Bits of the bottom cells of the columns */
+    public static final long BOTTOM = bottomMask();
+    /** Bits of all the cells of the grid (the sentinel row excluded) */
+    public static final long FULL = BOTTOM * ((1L << Connect4.HEIGHT) - 1);
+
+    /** Tokens of the players, index = player type - 1 */
+    private final long[] positions = new long[2];
+
+    /** Number of tokens in the columns */
+    private final int[] heights = new int[Connect4.WIDTH];
+
+    /** Columns played, in order (to undo the moves) */
+    private final int[] moves = new int[Connect4.WIDTH * Connect4.HEIGHT];
+
+    /** Number of tokens on the board */
+    private int nbMoves;
+
+    /** Zobrist key of the tokens (see Zobrist) */
+    private long key;
+
+    private static long bottomMask() {
+        long mask = 0;
+        for (int j = 0; j < Connect4.WIDTH; j++) {
+            mask |= 1L << (j * COLUMN_BITS);
+        }
+        return mask;
+    }
+
+    /**
+     * @param column column number
+     * @return true if the column is not full
+     */
+    public boolean canPlay(int column) {
+        return heights[column] < Connect4.HEIGHT;
+    }
+
+    /**
+     * Puts a token of the player on the top of the column (that must not be full, see canPlay).
+     *
+     * @param player type of player
+     * @param column column number played
+     */
+    public void play(PlayerType player, int column) {
+        int cell = column * COLUMN_BITS + heights[column]++;
+        positions[player.getType() - 1] |= 1L << cell;
+        key ^= Zobrist.of(player, cell);
+        moves[nbMoves++] = column;
+    }
+
+    /**
+     * Cancels the last move.
+     *
+     * @return the column of the cancelled move
+     */
+    public int undo() {
+        int column = moves[--nbMoves];
+        int cell = column * COLUMN_BITS + --heights[column];
+        PlayerType player = (positions[0] & (1L << cell)) != 0 ? PlayerType.PLAYER : PlayerType.MACHINE;
+        positions[player.getType() - 1] &= ~(1L << cell);
+        key ^= Zobrist.of(player, cell);
+        return column;
+    }
+
+    /**
+     * @param position tokens of a player
+     * @param direction shift between two neighbour cells (VERTICAL, HORIZONTAL, DIAGONAL_UP or DIAGONAL_DOWN)
+     * @return true if four tokens are aligned in the direction
+     */
+    public static boolean aligned(long position, int direction) {
+        long pairs = position & (position >>> direction);
+        return (pairs & (pairs >>> (2 * direction))) != 0;
+    }
+
+    /** @return true if four tokens of the player are aligned in a column */
+    public boolean alignedInColumn(PlayerType player) {
+        return aligned(getPosition(player), VERTICAL);
+    }
+
+    /** @return true if four tokens of the player are aligned in a row */
+    public boolean alignedInRow(PlayerType player) {
+        return aligned(getPosition(player), HORIZONTAL);
+    }
+
+    /** @return true if four tokens of the player are aligned in a diagonal */
+    public boolean alignedInDiagonal(PlayerType player) {
+        long position = getPosition(player);
+        return aligned(position, DIAGONAL_UP) || aligned(position, DIAGONAL_DOWN);
+    }
+
+    /** @return true if four tokens of the player are aligned */
+    public boolean isWinning(PlayerType player) {
+        long position = getPosition(player);
+        return aligned(position, VERTICAL) || aligned(position, HORIZONTAL)
+                || aligned(position, DIAGONAL_UP) || aligned(position, DIAGONAL_DOWN);
+    }
+
+    /** @return true if the grid is filled */
+    public boolean isFull() {
+        return nbMoves == moves.length;
+    }
+
+    /** @return the empty cells where a token can be put now (one per column that is not full) */
+    public long getPlayableCells() {
+        return ((positions[0] | positions[1]) + BOTTOM) & FULL;
+    }
+
+    /** @return the tokens of the player */
+    public long getPosition(PlayerType player) {
+        return positions[player.getType() - 1];
+    }
+
+    /** @return the Zobrist key of the tokens, the same for two boards with the same tokens */
+    public long getKey() {
+        return key;
+    }
+
+    /** @return the number of tokens in the column */
+    public int getHeight(int column) {
+        return heights[column];
+    }
+
+    /** @return the number of tokens on the board */
+    public int getNbMoves() {
+        return nbMoves;
+    }
+
+    /**
+     * @return the type of the player owning the cell, 0 if it is empty
+     */
+    public int get(int row, int column) {
+        long cell = 1L << (column * COLUMN_BITS + row);
+        if ((positions[0] & cell) != 0) return PlayerType.PLAYER.getType();
+        if ((positions[1] & cell) != 0) return PlayerType.MACHINE.getType();
+        return 0;
+    }
+
+    /**
+     * Matrix of the board for the graphical interface : an (HEIGHT+1)x(WIDTH+1) matrix,
+     * -1 marks the playable cells, the last row contains the number of elements in the columns,
+     * the last column contains the number of elements in the rows.
+     */
+    public int[][] toMatrix() {
+        int[][] matrix = new int[Connect4.HEIGHT + 1][Connect4.WIDTH + 1];
+        for (int j = 0; j < Connect4.WIDTH; j++) {
+            for (int i = 0; i < heights[j]; i++) {
+                matrix[i][j] = get(i, j);
+                matrix[i][Connect4.WIDTH]++;
+            }
+            if (heights[j] < Connect4.HEIGHT) {
+                matrix[heights[j]][j] = -1;
+            }
+            matrix[Connect4.HEIGHT][j] = heights[j];
+        }
+        return matrix;
+    }
+
+    /**
+     * Builds the board from a game matrix (as given by toMatrix; 0 and -1 are empty cells).
+     * The moves are recorded column by column, so they can be cancelled from the top of the columns.
+     */
+    public static Bitboard fromMatrix(int[][] matrix) {
+        Bitboard board = new Bitboard();
+        for (int j = 0; j < Connect4.WIDTH; j++) {
+            for (int i = 0; i < Connect4.HEIGHT && matrix[i][j] > 0; i++) {
+                board.play(matrix[i][j] == PlayerType.PLAYER.getType() ? PlayerType.PLAYER : PlayerType.MACHINE, j);
+            }
+        }
+        return board;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (int i = Connect4.HEIGHT - 1; i >= 0; i--) {
+            result.append("\n|");
+            for (int j = 0; j < Connect4.WIDTH; j++) {
+                result.append(get(i, j)).append("|");
+            }
+        }
+        result.append("\n------------\n");
+        return result.toString();
+    }
+}
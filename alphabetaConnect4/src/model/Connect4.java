@@ -1,23 +1,27 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import javax.swing.JOptionPane;
 import algo.Resolution;
+import algo.TranspositionTable;
 import gui.Connect4Window;
 
 public class Connect4 extends Thread {
 
     /**
-     * Matrix representing the game; the game is played on an 8x7 grid.<br>
-     * The last row contains the number of elements in the columns.<br>
-     * The last column contains the number of elements in the rows.
+     * Board of the game, the tokens of each player are kept in a long (see Bitboard).<br>
+     * The search of the machine plays and undoes its moves on it (see Resolution).
      */
-    private int[][] gameMatrix;
+    private Bitboard board;
 
-    /** Depth of the search tree */
+    /** Values of the positions searched by the machine, kept from one move to the next (2^20 entries, 16 MB) */
+    private final TranspositionTable table = new TranspositionTable(20);
+
+    /** Maximal depth of the search tree */
     private int gameDepth = 4;
 
+    /** Time allowed to the machine for a move, in milliseconds (the search deepens until it is over) */
+    private long timeBudget = 500;
+
     /** Number of cells in width + 1 */
     public static final int WIDTH = 7;
 
@@ -30,8 +34,7 @@ public class Connect4 extends Thread {
     /** Constructor */
     public Connect4() {
         super("Connect Four");
-        gameMatrix = new int[Connect4.HEIGHT + 1][Connect4.WIDTH + 1];
-        Arrays.fill(gameMatrix[0], -1);
+        board = new Bitboard();
         gui = new Connect4Window(this);
         gui.setVisible(true);
         init();
@@ -39,8 +42,7 @@ public class Connect4 extends Thread {
     }
 
     public void init() {
-        gameMatrix = new int[Connect4.HEIGHT + 1][Connect4.WIDTH + 1];
-        Arrays.fill(gameMatrix[0], -1);
+        board = new Bitboard();
 
         Object[] possibleValues = { "Normal", "Hard" };
         Object selectedValue = JOptionPane.showInputDialog(null, "Choose the level", "Level",
@@ -48,9 +50,9 @@ public class Connect4 extends Thread {
 
         if (selectedValue instanceof String level) {
             switch (level) {
-                case "Easy" -> gameDepth = 3;
-                case "Normal" -> gameDepth = 4;
-                case "Hard" -> gameDepth = 8;
+                case "Easy" -> { gameDepth = 3; timeBudget = 500; }
+                case "Normal" -> { gameDepth = 4; timeBudget = 500; }
+                case "Hard" -> { gameDepth = WIDTH * HEIGHT; timeBudget = 2000; }
             }
         }
 
@@ -65,7 +67,7 @@ public class Connect4 extends Thread {
     }
 
     /**
-     * Game turn = human move and computer move (using alpha-beta algorithm).
+     * Game turn = human move and computer move (using alpha-beta algorithm by iterative deepening, during timeBudget ms).
      *
      * @param column column number played
      * @return true if the move is allowed
@@ -79,41 +81,28 @@ public class Connect4 extends Thread {
         }
 
         if (result) {
-            Situation s = new Situation();
-            s.setColumnNumber(column);
-            s.setGameMatrix(gameMatrix);
-
-            while (!gui.updateGame(gameMatrix)) {
+            while (!gui.updateGame(board.toMatrix())) {
                 Thread.yield();
             }
 
-            createSituationTree(s, gameDepth);
-            int bestValue = Resolution.alphaBeta(s, Integer.MIN_VALUE, Integer.MAX_VALUE);
-            s.setH(bestValue);
-
-            boolean found = false;
-            ArrayList<Situation> successors = s.getSuccesseurs();
-            int nbSuccessors = successors.size();
-            StringBuilder sb = new StringBuilder("Machine found ").append(nbSuccessors)
-                    .append(" situations under the previous situation where h=").append(s.getH()).append("\n");
-
-            int i = 0;
-            Situation bestSituation = null;
-            for (; i < nbSuccessors && !found; i++) {
-                found = (successors.get(i).getH() == bestValue);
-                if (found)  bestSituation = successors.get(i);
-                sb.append("col").append(successors.get(i).getColumnNumber()).append("=")
-                        .append(successors.get(i).getH()).append(", ");
-            }
-
-            for (; i < nbSuccessors; i++) {
-                sb.append("col").append(successors.get(i).getColumnNumber()).append("= --, ");
+            Resolution resolution = new Resolution(board, table);
+            int bestColumn = resolution.bestMove(timeBudget, gameDepth);
+            int[] values = resolution.getValues();
+            StringBuilder sb = new StringBuilder("Machine met ").append(resolution.getNbNodes())
+                    .append(" situations, depth ").append(resolution.getCompletedDepth()).append(" completed")
+                    .append(", ").append(resolution.getNbTableCuts()).append(" found in the table, ")
+                    .append(resolution.getOrdering().getNbCutoffs()).append(" cuts (")
+                    .append(resolution.getOrdering().getNbFirstCutoffs()).append(" by the first column tried)\n");
+            for (int j = 0; j < WIDTH; j++) {
+                if (board.canPlay(j)) {
+                    sb.append("col").append(j).append("=").append(values[j]).append(", ");
+                }
             }
 
             gui.setHelpLabelText(sb.toString());
 
-            if (found && bestSituation != null) {
-                result = playMove(PlayerType.MACHINE, bestSituation.getColumnNumber());
+            if (bestColumn != -1) {
+                result = playMove(PlayerType.MACHINE, bestColumn);
             }
         }
         return result;
@@ -128,21 +117,12 @@ public class Connect4 extends Thread {
      */
     public boolean playMove(PlayerType player, int column) {
         boolean result;
-        int nb = gameMatrix[HEIGHT][column];
-        if (nb == HEIGHT) {
+        if (!board.canPlay(column)) {
             result = false;
         } else {
-            gameMatrix[HEIGHT][column]++;
-            gameMatrix[nb][WIDTH]++;
-            gameMatrix[nb][column] = player.getType();
-            if (nb < HEIGHT - 1) {
-                gameMatrix[nb + 1][column] = -1;
-            }
-            gui.updateGame(gameMatrix, column);
-            Situation s = new Situation();
-            s.setColumnNumber(column);
-            s.setGameMatrix(gameMatrix);
-            result = !isEndOfGame(s, player);
+            board.play(player, column);
+            gui.updateGame(board.toMatrix(), column);
+            result = !isEndOfGame(player);
         }
         return result;
     }
@@ -151,30 +131,26 @@ public class Connect4 extends Thread {
      * Determines if it is the end of the game.<br>
      * i.e., if someone has won.
      */
-    private boolean isEndOfGame(Situation s, PlayerType player) {
+    private boolean isEndOfGame(PlayerType player) {
         boolean win = false;
         String message = "";
-        boolean full = true;
-
-        for (int j = 0; j < Connect4.WIDTH && full; j++) {
-            full = full && (gameMatrix[Connect4.HEIGHT][j] == 6);
-        }
+        boolean full = board.isFull();
 
         if (full) {
             message += "The entire grid is filled!!!";
         }
 
-        if (s.fourAlignedInColumn(player) != 0) {
+        if (board.alignedInColumn(player)) {
             win = true;
             message += "Player " + player + " won on a column!\n";
         }
 
-        if (s.fourAlignedInRow(player) != 0) {
+        if (board.alignedInRow(player)) {
             win = true;
             message += "Player " + player + " won on a row!\n";
         }
 
-        if (s.fourAlignedInDiagonal(player) != 0) {
+        if (board.alignedInDiagonal(player)) {
             win = true;
             message += "Player " + player + " won on a diagonal!\n";
         }
@@ -188,80 +164,16 @@ public class Connect4 extends Thread {
     }
 
     /**
-     * Performs a move on the provided matrix.
-     *
-     * @param player type of player
-     * @param column column number played
-     * @param matrix game matrix on which to play (different from the actual game matrix)
-     * @return true if the move is allowed
-     */
-    public boolean playMove(PlayerType player, int column, int[][] matrix) {
-        boolean result = true;
-        assert (column >= 0 && column < WIDTH) : "Column index out of bounds";
-        int nb = matrix[HEIGHT][column];
-        if (nb == HEIGHT) {
-            result = false;
-        } else {
-            matrix[HEIGHT][column]++;
-            matrix[nb][WIDTH]++;
-            matrix[nb][column] = player.getType();
-            if (nb < HEIGHT - 1) {
-                matrix[nb + 1][column] = -1;
-            }
-        }
-        return result;
-    }
-
-    /**
-     * Creates a situation tree with the specified number of levels from the current game situation.
-     *
-     * @param s situation from which to expand the tree
-     * @param remainingLevels number of levels remaining to create in the tree
+     * @return the game matrix, built from the board for the graphical interface (see Bitboard.toMatrix)
      */
-    void createSituationTree(Situation s, int remainingLevels) {
-        for (int j = 0; j < WIDTH; j++) {
-            int[][] deducedMatrix = new int[HEIGHT + 1][WIDTH + 1];
-            copyMatrix(s.getGameMatrix(), deducedMatrix);
-            PlayerType tj = (s.isMax() ? PlayerType.MACHINE : PlayerType.PLAYER);
-
-            if (deducedMatrix[HEIGHT][j] < HEIGHT && playMove(tj, j, deducedMatrix)) {
-                Situation newSituation = new Situation(0, !s.isMax());
-                newSituation.setColumnNumber(j);
-                newSituation.setGameMatrix(deducedMatrix);
-                s.addSuccessor(newSituation);
-
-                if (newSituation.fourAlignedInColumn(tj) != 0 || newSituation.fourAlignedInRow(tj) != 0
-                        || newSituation.fourAlignedInDiagonal(tj) != 0) {
-                    newSituation.setClose(true);
-                    newSituation.evaluate();
-                } else {
-                    if (remainingLevels > 1) {
-                        createSituationTree(newSituation, remainingLevels - 1);
-                    } else {
-                        newSituation.setLeaf(true);
-                        newSituation.evaluate();
-                    }
-                }
-            }
-        }
-    }
-
-    /**
-     * Copies the 6x6 game matrix.
-     *
-     * @param from matrix to copy
-     * @param to copied matrix
-     */
-    private void copyMatrix(int[][] from, int[][] to) {
-        for (int i = 0; i < HEIGHT + 1; i++) {
-            System.arraycopy(from[i], 0, to[i], 0, WIDTH + 1);
-        }
+    public int[][] getGameMatrix() {
+        return board.toMatrix();
     }
 
     /**
-     * @return the game matrix
+     * @return the board of the game
      */
-    public int[][] getGameMatrix() {
-        return gameMatrix;
+    public Bitboard getBoard() {
+        return board;
     }
 }
@@ -34,6 +34,40 @@ public enum DangerPattern {
         pattern = _pattern;
     }
 
+    /**
+     * Finds the pattern on a board : the player value must be a token of the player,
+     * -1 must be a cell where a token can be put now.
+     *
+     * @param own tokens of the player (see Bitboard)
+     * @param playable playable cells (see Bitboard.getPlayableCells)
+     * @param direction shift between two cells of the pattern (see Bitboard)
+     * @return the first cells of the places where the pattern is found
+     */
+    public long matches(long own, long playable, int direction) {
+        long result = -1L;
+        for (int k = 0; k < pattern.length; k++) {
+            result &= (pattern[k] == -1 ? playable : own) >>> (k * direction);
+        }
+        return result;
+    }
+
+    /**
+     * @return true if the pattern is made of the tokens of the player (and of playable cells)
+     */
+    public boolean isFor(PlayerType playerType) {
+        for (int value : pattern) {
+            if (value != -1 && value != playerType.getType()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the pattern is a danger (three tokens), false for a possible danger
+     */
+    public boolean isDanger() {
+        return name().startsWith("DANGER");
+    }
+
     /**
      * @return the pattern
      */
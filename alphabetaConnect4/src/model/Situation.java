@@ -1,203 +1,102 @@
 package model;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
- * Situation class, it represents a node in the state tree.
+ * Evaluation of the situations of the game : the dangers and the alignments of each player, found on the bits of the board.<br>
+ * The search of the machine (see algo.Resolution) plays and undoes its moves on the board of the game
+ * and evaluates its positions here, no tree of situations is built.
  *
  * @author emmanuel adam
  * @version May 2013
  */
-public class Situation {
-    /** Name of the situation */
-    private String name;
+public final class Situation {
 
-    /** Number of instances */
-    private static int instanceCount = 0;
-
-    /** Instance number */
-    private int instanceNumber;
-
-    /** Column number */
-    private int columnNumber;
-
-    /** Indicates if the state is in Max mode */
-    private boolean max = true;
-
-    /** List of states accessible from the current state */
-    private ArrayList<Situation> successors;
-
-    /** Indicates if the state/situation is a leaf of the tree */
-    private boolean leaf;
-
-    /**
-     * Indicates if the state/situation is a definitive leaf of the tree
-     * (i.e., it is impossible to create successors for this situation)
-     */
-    private boolean closed;
-
-    /** h = heuristic, estimation of the situation's value */
-    private int h;
-
-    /** Game grid corresponding to the situation */
-    private int[][] gameMatrix;
-
-    /** Default constructor */
-    public Situation() {
-        instanceNumber = instanceCount++;
-        name = "" + instanceNumber;
-        h = 0;
-        gameMatrix = new int[Connect4.HEIGHT + 1][Connect4.WIDTH + 1];
-        successors = new ArrayList<>();
+    private Situation() {
     }
 
     /**
-     * Constructor initializing the heuristic estimate h
+     * Evaluates a board : the dangers and the alignments of the machine count twice as much as those of the player.<br>
+     * Each place of a pattern counts, in every row, column and diagonal
+     * (the evaluation on the game matrix scored only some lines, see the Readme).
      *
-     * @param _h estimation of the situation
+     * @param board board to evaluate
+     * @return estimation of the board, the greatest the best for the machine
      */
-    public Situation(int _h) {
-        this();
-        h = _h;
-    }
+    public static int evaluate(Bitboard board) {
+        int playerCoefficient = 1;
+        int machineCoefficient = 2;
+        int value = -playerCoefficient * possibleFourInRow(board, PlayerType.PLAYER);
+        value += machineCoefficient * possibleFourInRow(board, PlayerType.MACHINE);
+        value += -playerCoefficient * possibleFourInColumn(board, PlayerType.PLAYER);
+        value += machineCoefficient * possibleFourInColumn(board, PlayerType.MACHINE);
+        value += -playerCoefficient * possibleFourInDiagonal(board, PlayerType.PLAYER);
+        value += machineCoefficient * possibleFourInDiagonal(board, PlayerType.MACHINE);
 
-    /**
-     * Constructor initializing the heuristic estimate h and the node type
-     *
-     * @param _h estimation of the situation
-     * @param _isMax determines if the value of the situation should be maximized or not
-     */
-    public Situation(int _h, boolean _isMax) {
-        this(_h);
-        max = _isMax;
+        value += -playerCoefficient * fourAlignedInRow(board, PlayerType.PLAYER);
+        value += machineCoefficient * fourAlignedInRow(board, PlayerType.MACHINE);
+        value += -playerCoefficient * fourAlignedInColumn(board, PlayerType.PLAYER);
+        value += machineCoefficient * fourAlignedInColumn(board, PlayerType.MACHINE);
+        value += -playerCoefficient * fourAlignedInDiagonal(board, PlayerType.PLAYER);
+        value += machineCoefficient * fourAlignedInDiagonal(board, PlayerType.MACHINE);
+        return value;
     }
 
     /**
-     * Constructor initializing the heuristic estimate h, the node type, and the node position
-     *
-     * @param _h estimation of the situation
-     * @param _isMax determines if the value of the situation should be maximized or not
-     * @param _isLeaf determines if the situation is final in the tree
+     * Function that returns the value of the rows<br>
+     * Each place where a danger pattern is found (3 tokens of type tj, and a playable cell) -> value = 1000<br>
+     * Each place where a possible danger pattern is found (2 tokens of type tj, and 2 playable cells) -> value = 50
      */
-    public Situation(int _h, boolean _isMax, boolean _isLeaf) {
-        this(_h, _isMax);
-        leaf = _isLeaf;
+    private static int possibleFourInRow(Bitboard board, PlayerType playerType) {
+        return dangerValue(board, playerType, Bitboard.HORIZONTAL);
     }
 
-    /** Function evaluating the current situation; calculates 'h' */
-    void evaluate() {
-        int playerCoefficient = 1;
-        int machineCoefficient = 2;
-        int value = -playerCoefficient * possibleFourInRow(PlayerType.PLAYER);
-        value += machineCoefficient * possibleFourInRow(PlayerType.MACHINE);
-        value += -playerCoefficient * possibleFourInColumn(PlayerType.PLAYER);
-        value += machineCoefficient * possibleFourInColumn(PlayerType.MACHINE);
-        value += -playerCoefficient * possibleFourInDiagonal(PlayerType.PLAYER);
-        value += machineCoefficient * possibleFourInDiagonal(PlayerType.MACHINE);
-
-        int lineValue = -playerCoefficient * fourAlignedInRow(PlayerType.PLAYER);
-        lineValue += machineCoefficient * fourAlignedInRow(PlayerType.MACHINE);
-        lineValue += -playerCoefficient * fourAlignedInColumn(PlayerType.PLAYER);
-        lineValue += machineCoefficient * fourAlignedInColumn(PlayerType.MACHINE);
-        lineValue += -playerCoefficient * fourAlignedInDiagonal(PlayerType.PLAYER);
-        lineValue += machineCoefficient * fourAlignedInDiagonal(PlayerType.MACHINE);
-        value += lineValue;
+    /** Danger patterns of each player, index = player type - 1 */
+    private static final DangerPattern[][] DANGERS = patternsOf(true);
 
-        if (lineValue != 0) {
-            closed = true;
-        }
-        h = value;
-    }
+    /** Possible danger patterns of each player, index = player type - 1 */
+    private static final DangerPattern[][] POSSIBLE_DANGERS = patternsOf(false);
 
-    /**
-     * Function that returns the value of a row<br>
-     * If 2 tokens of type tj are aligned and adjacent to an empty cell -> value = 200<br>
-     * If 2 tokens of type tj are aligned and adjacent to two empty cells -> value = 400<br>
-     * If 1 token of type tj is adjacent to an empty cell -> value = 30<br>
-     * If 1 token of type tj is adjacent to two empty cells -> value = 60
-     */
-    private int possibleFourInRow(PlayerType playerType) {
-        int result = 0;
-        int playerValue = playerType.getType();
-        for (int i = 0; i < Connect4.HEIGHT; i++) {
-            if (gameMatrix[i][Connect4.WIDTH] >= 2) {
-                result = dangerValue(gameMatrix[i], playerValue);
-            }
+    private static DangerPattern[][] patternsOf(boolean danger) {
+        DangerPattern[][] result = new DangerPattern[PlayerType.values().length][];
+        for (PlayerType playerType : PlayerType.values()) {
+            result[playerType.getType() - 1] = Arrays.stream(DangerPattern.values())
+                    .filter(p -> p.isFor(playerType) && p.isDanger() == danger)
+                    .toArray(DangerPattern[]::new);
         }
         return result;
     }
 
-    /** Compute the index of danger in lines and parts of diagonals */
-    private int dangerValue(int[] lineDiagonal, int playerValue) {
+    /** Compute the index of danger in the lines of a direction (see DangerPattern) */
+    private static int dangerValue(Bitboard board, PlayerType playerType, int direction) {
         int result = 0;
-        int danger1, danger2, danger3, danger4;
-        int possibleDanger1, possibleDanger2, possibleDanger3, possibleDanger4;
-
-        if (playerValue == 1) {
-            danger1 = Situation.findSubArray(lineDiagonal, DangerPattern.DANGER1_1.getPattern());
-            danger2 = Situation.findSubArray(lineDiagonal, DangerPattern.DANGER1_2.getPattern());
-            danger3 = Situation.findSubArray(lineDiagonal, DangerPattern.DANGER1_3.getPattern());
-            danger4 = Situation.findSubArray(lineDiagonal, DangerPattern.DANGER1_4.getPattern());
-        } else {
-            danger1 = Situation.findSubArray(lineDiagonal, DangerPattern.DANGER2_1.getPattern());
-            danger2 = Situation.findSubArray(lineDiagonal, DangerPattern.DANGER2_2.getPattern());
-            danger3 = Situation.findSubArray(lineDiagonal, DangerPattern.DANGER2_3.getPattern());
-            danger4 = Situation.findSubArray(lineDiagonal, DangerPattern.DANGER2_4.getPattern());
+        long own = board.getPosition(playerType);
+        long playable = board.getPlayableCells();
+        for (DangerPattern pattern : DANGERS[playerType.getType() - 1]) {
+            result += 1000 * Long.bitCount(pattern.matches(own, playable, direction));
         }
-
-        if (danger1 != -1) result = 1000;
-        if (danger2 != -1) result = 1000;
-        if (danger3 != -1) result = 1000;
-        if (danger4 != -1) result = 1000;
-
-        if (playerValue == 1) {
-            possibleDanger1 = Situation.findSubArray(lineDiagonal, DangerPattern.POSSIBLE_DANGER1_1.getPattern());
-            possibleDanger2 = Situation.findSubArray(lineDiagonal, DangerPattern.POSSIBLE_DANGER1_2.getPattern());
-            possibleDanger3 = Situation.findSubArray(lineDiagonal, DangerPattern.POSSIBLE_DANGER1_3.getPattern());
-            possibleDanger4 = Situation.findSubArray(lineDiagonal, DangerPattern.POSSIBLE_DANGER1_4.getPattern());
-        } else {
-            possibleDanger1 = Situation.findSubArray(lineDiagonal, DangerPattern.POSSIBLE_DANGER2_1.getPattern());
-            possibleDanger2 = Situation.findSubArray(lineDiagonal, DangerPattern.POSSIBLE_DANGER2_2.getPattern());
-            possibleDanger3 = Situation.findSubArray(lineDiagonal, DangerPattern.POSSIBLE_DANGER2_3.getPattern());
-            possibleDanger4 = Situation.findSubArray(lineDiagonal, DangerPattern.POSSIBLE_DANGER2_4.getPattern());
+        for (DangerPattern pattern : POSSIBLE_DANGERS[playerType.getType() - 1]) {
+            result += 50 * Long.bitCount(pattern.matches(own, playable, direction));
         }
-
-        if (possibleDanger1 != -1) result += 50;
-        if (possibleDanger2 != -1) result += 50;
-        if (possibleDanger3 != -1) result += 50;
-        if (possibleDanger4 != -1) result += 50;
-
         return result;
     }
 
     /**
-     * Function that returns the value of a column<br>
-     * If 2 tokens of type tj are aligned and adjacent to an empty cell -> value = 100<br>
-     * If 1 token of type tj is adjacent to an empty cell -> value = 30<br>
+     * Function that returns the value of the columns, for each playable cell above tokens of type tj<br>
+     * If 3 tokens of type tj are below -> value = 300<br>
+     * If 2 tokens of type tj are below -> value = 50<br>
+     * If 1 token of type tj is below -> value = 10<br>
      */
-    private int possibleFourInColumn(PlayerType playerType) {
-        int result = 0;
-        int playerValue = playerType.getType();
-
-        for (int j = 0; j < Connect4.WIDTH; j++) {
-            int contiguousCount = 0;
-            int tokensInColumn = gameMatrix[Connect4.HEIGHT][j];
-
-            if (tokensInColumn >= 4) {
-                for (int i = tokensInColumn - 1; i >= 0; i--) {
-                    if (gameMatrix[i][j] == playerValue) {
-                        contiguousCount++;
-                    } else {
-                        contiguousCount = 0;
-                    }
-                }
-            }
-
-            if (contiguousCount == 3) result += 300;
-            else if (contiguousCount == 2) result += 50;
-            else if (contiguousCount == 1) result += 10;
-        }
-        return result;
+    private static int possibleFourInColumn(Bitboard board, PlayerType playerType) {
+        long own = board.getPosition(playerType);
+        long playable = board.getPlayableCells();
+        // the sentinel bit of a column stops a shift before it reaches the tokens of the previous column
+        long oneBelow = playable & (own << 1);
+        long twoBelow = oneBelow & (own << 2);
+        long threeBelow = twoBelow & (own << 3);
+        return 300 * Long.bitCount(threeBelow)
+                + 50 * Long.bitCount(twoBelow & ~threeBelow)
+                + 10 * Long.bitCount(oneBelow & ~twoBelow);
     }
 
     /**
@@ -206,354 +105,30 @@ public class Situation {
      * @param playerType type of player to check if they have four tokens aligned in a row
      * @return 0 if no alignment, 2000 if four tokens are aligned
      */
-    int fourAlignedInRow(PlayerType playerType) {
-        int result = 0;
-        boolean found = false;
-        int playerValue = playerType.getType();
-
-        for (int i = 0; i < Connect4.HEIGHT && !found; i++) {
-            int contiguous = 0;
-            if (gameMatrix[i][Connect4.WIDTH] >= 3) {
-                for (int j = 0; j < Connect4.WIDTH && !found; j++) {
-                    if (gameMatrix[i][j] != playerValue) {
-                        contiguous = 0;
-                    } else {
-                        contiguous++;
-                    }
-                    found = (contiguous == 4);
-                }
-            }
-        }
-
-        if (found) {
-            result = 2000;
-            leaf = true;
-        }
-        return result;
+    static int fourAlignedInRow(Bitboard board, PlayerType playerType) {
+        return board.alignedInRow(playerType) ? 2000 : 0;
     }
 
     /**
      * Calculates if 4 tokens are aligned in a column
      */
-    int fourAlignedInColumn(PlayerType playerType) {
-        int result = 0;
-        boolean found = false;
-        int playerValue = playerType.getType();
-
-        for (int j = 0; j < Connect4.WIDTH && !found; j++) {
-            int contiguous = 0;
-            int tokensInColumn = gameMatrix[Connect4.HEIGHT][j];
-            if (tokensInColumn >= 4) {
-                for (int i = tokensInColumn - 1; i >= 0 && !found; i--) {
-                    if (gameMatrix[i][j] != playerValue) {
-                        contiguous = 0;
-                    } else {
-                        contiguous++;
-                    }
-                    found = (contiguous == 4);
-                }
-            }
-        }
-
-        if (found) result = 1000;
-        return result;
+    static int fourAlignedInColumn(Bitboard board, PlayerType playerType) {
+        return board.alignedInColumn(playerType) ? 1000 : 0;
     }
 
     /**
      * Calculates if 4 tokens are aligned in a diagonal
      */
-    int fourAlignedInDiagonal(PlayerType playerType) {
-        int result = 0;
-        boolean found = false;
-        int playerValue = playerType.getType();
-
-        for (int j = 0; j < Connect4.WIDTH && !found; j++) {
-            int tokensInColumn = gameMatrix[Connect4.HEIGHT][j];
-            if (tokensInColumn >= 4) {
-                for (int i = tokensInColumn - 1; i >= 3 && !found; i--) {
-                    found = (gameMatrix[i][j] == playerValue);
-                    if (found) {
-                        found = fourDiagonalRight(i, j, playerValue);
-                        found = found || fourDiagonalLeft(i, j, playerValue);
-                    }
-                }
-            }
-        }
-
-        if (found) result = 1000;
-        return result;
-    }
-
-    /** Returns true if 4 pieces are contiguous on the right diagonal */
-    private boolean fourDiagonalRight(int i, int j, int playerValue) {
-        boolean diagonal = false;
-        if (i - 3 >= 0 && (j + 3) < (Connect4.WIDTH)) {
-            diagonal = true;
-            for (int k = 1; k <= 3; k++) {
-                diagonal = diagonal && (gameMatrix[i - k][j + k] == playerValue);
-            }
-        }
-        return diagonal;
-    }
-
-    /** Returns true if 4 pieces are contiguous on the left diagonal */
-    private boolean fourDiagonalLeft(int i, int j, int playerValue) {
-        boolean diagonal = false;
-        if (i - 3 >= 0 && j - 3 >= 0) {
-            diagonal = true;
-            for (int k = 1; k <= 3; k++) {
-                diagonal = diagonal && (gameMatrix[i - k][j - k] == playerValue);
-            }
-        }
-        return diagonal;
+    static int fourAlignedInDiagonal(Bitboard board, PlayerType playerType) {
+        return board.alignedInDiagonal(playerType) ? 1000 : 0;
     }
 
     /**
      * Calculates if 4 tokens are possible in a diagonal
      */
-    int possibleFourInDiagonal(PlayerType playerType) {
-        int result = 0;
-        int playerValue = playerType.getType();
-        result += possibleFourInLeftDiagonal(playerValue);
-        result += possibleFourInRightDiagonal(playerValue);
-        return result;
-    }
-
-    /**
-     * Calculates if 4 tokens are possible in the left diagonal
-     */
-    int possibleFourInLeftDiagonal(int playerValue) {
-        int result = 0;
-        int length = 3;
-        int end = Connect4.WIDTH + 2;
-
-        for (int j = 3; j < end; j++) {
-            int i = (j < Connect4.WIDTH ? Connect4.HEIGHT - 1 : Connect4.HEIGHT - 1 + (Connect4.WIDTH - j));
-            length = length + (j < 6 ? 1 : 0);
-            length = length - (j > 7 ? 1 : 0);
-            int[] diagonalArray = new int[length];
-            int column = (j < Connect4.WIDTH ? j : Connect4.WIDTH - 1);
-            for (int k = 0; k < length; k++) {
-                diagonalArray[k] = gameMatrix[i - k][column - k];
-            }
-            result += dangerValue(diagonalArray, playerValue);
-        }
-        return result;
-    }
-
-    /**
-     * Calculates if 4 tokens are possible in the right diagonal
-     */
-    int possibleFourInRightDiagonal(int playerValue) {
-        int result = 0;
-        int length = 3;
-        int end = Connect4.WIDTH - 2;
-
-        for (int j = -2; j < end; j++) {
-            int i = (j < 0 ? Connect4.HEIGHT - 1 + j : Connect4.HEIGHT - 1);
-            length = length + (j <= 0 ? 1 : 0);
-            length = length - (j > 1 ? 1 : 0);
-            int[] diagonalArray = new int[length];
-            int column = Math.max(j, 0);
-            for (int k = 0; k < length; k++) {
-                diagonalArray[k] = gameMatrix[i - k][column + k];
-            }
-            result += dangerValue(diagonalArray, playerValue);
-        }
-        return result;
-    }
-
-    /**
-     * Function calculating the value of the state
-     *
-     * @return estimation of the current state's value
-     */
-    public int getHeuristic() {
-        return h;
-    }
-
-    void addSuccessor(Situation s) {
-        successors.add(s);
-        s.name = name + "." + s.name;
-    }
-
-    /** @return true if the state is a leaf */
-    public boolean isLeaf(PlayerType playerType) {
-        return leaf || closed;
-    }
-
-    /**
-     * @param successors the successors to set
-     */
-    public void setSuccessors(ArrayList<Situation> successors) {
-        this.successors = successors;
-    }
-
-    /**
-     * @param index index of the successor
-     * @return the successor at index
-     */
-    public Situation getSuccessor(int index) {
-        Situation result = null;
-        if (successors != null && index < successors.size()) {
-            result = successors.get(index);
-        }
-        return result;
-    }
-
-    /**
-     * @return the successors
-     */
-    public ArrayList<Situation> getSuccesseurs() {
-        return successors;
-    }
-
-    /**
-     * @return the heuristic value h
-     */
-    public int getH() {
-        return h;
-    }
-
-    /**
-     * @param h the heuristic value to set
-     */
-    public void setH(int h) {
-        this.h = h;
-    }
-
-    /**
-     * @return the game matrix
-     */
-    public int[][] getGameMatrix() {
-        return gameMatrix;
-    }
-
-    /**
-     * @param gameMatrix the game matrix to set
-     */
-    public void setGameMatrix(int[][] gameMatrix) {
-        this.gameMatrix = gameMatrix;
-    }
-
-    /**
-     * @return true if the state is in Max mode
-     */
-    public boolean isMax() {
-        return max;
-    }
-
-    /**
-     * @param isMax whether the state is in Max mode
-     */
-    public void setMax(boolean isMax) {
-        this.max = isMax;
-    }
-
-    @Override
-    public String toString() {
-        StringBuilder result = new StringBuilder(" S" + name + ", h=" + h + ", is max = " + max + "---");
-        if (!successors.isEmpty()) {
-            result.append("\n::::: I have ").append(successors.size()).append(" children :::::");
-            for (Situation s : successors) {
-                result.append(s.name).append("(").append(s.h).append(") ; ");
-            }
-        }
-        result.append("\n ");
-        return result.toString();
-    }
-
-    /** Displays the matrix associated with the situation on the console */
-    @SuppressWarnings("unused")
-    private void displayMatrix() {
-        StringBuilder result = new StringBuilder();
-        for (int i = Connect4.HEIGHT; i >= 0; i--) {
-            result.append("\n|");
-            for (int j = 0; j < Connect4.WIDTH; j++) {
-                result.append(gameMatrix[i][j]).append("|");
-            }
-        }
-        result.append("\n------------\n");
-        System.out.println(result);
-    }
-
-    /**
-     * Checks if a sub-array is inside a larger array
-     *
-     * @param largeArray large array to check
-     * @param subArray small array to find in largeArray
-     * @return the position of the first element of subArray in largeArray, -1 if it doesn't exist
-     */
-    static public int findSubArray(int[] largeArray, int[] subArray) {
-        int subArrayLength = subArray.length;
-        if (subArrayLength == 0) {
-            return -1;
-        }
-        int limit = largeArray.length - subArrayLength;
-        int i ;
-        boolean subArrayFound = false;
-        for (i = 0; i <= limit && !subArrayFound; i++) {
-            subArrayFound = true;
-            for (int j = 0; j < subArrayLength; j++) {
-                if (subArray[j] != largeArray[i + j]) {
-                    subArrayFound = false;
-                    break;
-                }
-            }
-        }
-        if (!subArrayFound) {
-            i = 0;
-        }
-        return i - 1;
-    }
-
-    /**
-     * @return true if the state is a leaf
-     */
-    public boolean isLeaf() {
-        return leaf || closed;
-    }
-
-    /**
-     * @param leaf whether the state is a leaf
-     */
-    public void setLeaf(boolean leaf) {
-        this.leaf = leaf;
-    }
-
-    /**
-     * @return the name
-     */
-    public String getName() {
-        return name;
-    }
-
-    /**
-     * @return true if the state is closed
-     */
-    public boolean isClose() {
-        return closed;
-    }
-
-    /**
-     * @param closed whether the state is closed
-     */
-    public void setClose(boolean closed) {
-        this.closed = closed;
-    }
-
-    /**
-     * @return the column number
-     */
-    public int getColumnNumber() {
-        return columnNumber;
-    }
-
-    /**
-     * @param columnNumber the column number to set
-     */
-    public void setColumnNumber(int columnNumber) {
-        this.columnNumber = columnNumber;
+    static int possibleFourInDiagonal(Bitboard board, PlayerType playerType) {
+        return dangerValue(board, playerType, Bitboard.DIAGONAL_UP)
+                + dangerValue(board, playerType, Bitboard.DIAGONAL_DOWN);
     }
 
     /**
@@ -569,11 +144,11 @@ public class Situation {
                 {0, 0, 0, 0, 2, -1, 0, 1},
                 {0, 2, 3, 4, 6, 5, 0, 0}
         };
-        Situation s1 = new Situation();
-        s1.setGameMatrix(matrix1);
-        System.out.println("fourAlignedInDiagonal(MACHINE)=" + s1.fourAlignedInDiagonal(PlayerType.MACHINE));
-        System.out.println("fourAlignedInDiagonal(PLAYER)=" + s1.fourAlignedInDiagonal(PlayerType.PLAYER));
-        System.out.println("possibleFourInDiagonal(MACHINE)=" + s1.possibleFourInDiagonal(PlayerType.MACHINE));
-        System.out.println("possibleFourInDiagonal(PLAYER)=" + s1.possibleFourInDiagonal(PlayerType.PLAYER));
+        Bitboard board = Bitboard.fromMatrix(matrix1);
+        System.out.println(board);
+        System.out.println("fourAlignedInDiagonal(MACHINE)=" + fourAlignedInDiagonal(board, PlayerType.MACHINE));
+        System.out.println("fourAlignedInDiagonal(PLAYER)=" + fourAlignedInDiagonal(board, PlayerType.PLAYER));
+        System.out.println("possibleFourInDiagonal(MACHINE)=" + possibleFourInDiagonal(board, PlayerType.MACHINE));
+        System.out.println("possibleFourInDiagonal(PLAYER)=" + possibleFourInDiagonal(board, PlayerType.PLAYER));
     }
 }
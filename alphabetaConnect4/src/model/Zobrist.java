@@ -0,0 +1,41 @@
+package model;
+
+import java.util.Random;
+
+/**
+ * Zobrist keys of the board : a random number per cell and per player.<br>
+ * The key of a board is the xor of the numbers of its tokens, so a move changes it by a single xor
+ * (see Bitboard.getKey); two boards reached by different orders of moves have the same key.
+ *
+ * @author emmanueladam
+ */
+public final class Zobrist {
+    /** Numbers of the cells, [player type - 1][bit of the cell] */
+    private static final long[][] CELLS = new long[2][Connect4.WIDTH * Bitboard.COLUMN_BITS];
+
+    /** Number added to the key when the machine is the next to play */
+    public static final long MACHINE_TO_PLAY;
+
+    static {
+        // fixed seed : the keys are the same from one launch to the next
+        Random random = new Random(2013);
+        for (long[] cells : CELLS) {
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = random.nextLong();
+            }
+        }
+        MACHINE_TO_PLAY = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param player type of player
+     * @param cell bit of the cell (see Bitboard)
+     * @return the number of a token of the player in the cell
+     */
+    public static long of(PlayerType player, int cell) {
+        return CELLS[player.getType() - 1][cell];
+    }
+}
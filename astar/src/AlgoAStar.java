@@ -1,83 +1,91 @@
 package algo;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import search.Frontier;
+import search.GraphSearch;
+import search.Visited;
+
 import java.util.LinkedList;
 
 /** this class propose an implementation of the a star algorithm 
  * @author emmanueladam */
 public class AlgoAStar {
 
-	/** a* algorithm to find the best path between two states 
-	 * @param start initial state*/
-	static LinkedList<State> algoASTAR(State start)
+	/** find the best path between two states with the chosen algorithm
+	 * @param start initial state
+	 * @param mode ASTAR, IDASTAR to use a memory linear in the depth of the solution,
+	 *             HDASTAR to use a worker by processor, or BIDIRECTIONAL to search from both ends
+	 *             (start must then be a ReversibleState)*/
+	static LinkedList<State> solve(State start, SearchMode mode)
 	{
-		ArrayList<State> freeNodes;
-		ArrayList<State> closedNodes;
+		return switch (mode) {
+			case ASTAR -> algoASTAR(start);
+			case IDASTAR -> AlgoIDAStar.algoIDASTAR(start);
+			case HDASTAR -> ParallelAStar.algoHDASTAR(start, Runtime.getRuntime().availableProcessors());
+			case BIDIRECTIONAL -> {
+				if (!(start instanceof ReversibleState))
+					throw new IllegalArgumentException("the goal of " + start + " is not explicit");
+				yield BidirectionalAStar.algoMM((State & ReversibleState) start);
+			}
+		};
+	}
 
-		int index;
+	/** search of the searchCore folder (GraphSearch) : the order of the nodes is given by the frontier
+	 * (Frontier.bestFirst for a greedy search on h...), a state is not developed twice;
+	 * the path found is not always the best one
+	 * @param start initial state
+	 * @param freeNodes nodes to evaluate, empty
+	 * @return the path from start to the goal, null if there is no solution*/
+	static LinkedList<State> algoGraphSearch(State start, Frontier<State> freeNodes)
+	{
+		return algoGraphSearch(start, freeNodes, Visited.hashSet());
+	}
 
-		// list of visited nodes
-		closedNodes = new ArrayList<>();
-		// list of nodes to evaluate
-		freeNodes = new ArrayList<>();
-		freeNodes.add(start);
-		LinkedList<State> solution = null;
-		boolean found = false;
-		// no cost to go from start to start
+	/** search of the searchCore folder (GraphSearch), with the given memory of the states met
+	 * (Visited.ancestors for a beam search : the memory is bounded by the beam)
+	 * @param start initial state
+	 * @param freeNodes nodes to evaluate, empty
+	 * @param visited states met, empty
+	 * @return the path from start to the goal, null if there is no solution*/
+	static LinkedList<State> algoGraphSearch(State start, Frontier<State> freeNodes, Visited<State> visited)
+	{
+		if (!start.isSolvable()) return null;
 		start.setG(0);
 		start.evaluate();
 		start.updateF();
-		// while there is still a node to evaluate
-		while(!freeNodes.isEmpty() && !found)
-		{
-
-
-			// choose the node having a F minimal
-			State s = Collections.min(freeNodes);
-			freeNodes.remove(s);
-			closedNodes.add(s);
-
-
-//			forget();
+		start.checkState();
+		State goal = GraphSearch.solve(start, freeNodes, visited, null);
+		return goal == null ? null : goal.rebuildPath();
+	}
 
-			// construct the list of neighbourgs
-			LinkedList<State> nextDoorNeighbours  = s.nextStates();
-			for(State ndn:nextDoorNeighbours)
-			{
-				ndn.setParent(s);
-				// cost to reach the neighbour is the cost to reach n + cost from n to the neighbourg
-				int cost = s.getG() + ndn.costBetween(s);
-				ndn.setG(cost);
-				ndn.evaluate();
-				ndn.updateF();
-				// stop if the node is the goal
-				if (ndn.checkState())
-				{
-					found = true;
-					solution = ndn.rebuildPath();
-				}
-				else {
+	/** a* algorithm to find the best path between two states 
+	 * @param start initial state*/
+	static LinkedList<State> algoASTAR(State start)
+	{
+		return algoASTAR(start, null).getSolution();
+	}
 
-					// if the neighbour has been visited, do not reevaluate it
-					index = closedNodes.indexOf(ndn);
-					if (index != -1)
-						if (closedNodes.get(index).getF() > ndn.getF())
-							closedNodes.remove(index);
-						else continue;
-					else {
-						index = freeNodes.indexOf(ndn);
-						if (index != -1)
-							if (freeNodes.get(index).getF() > ndn.getF())
-								freeNodes.remove(index);
-							else continue;
-					}
-					freeNodes.add(ndn);
-				}
-			}
+	/** a* algorithm to find the best path between two states : the search of the searchCore folder (GraphSearch),
+	 * the nodes to evaluate are ordered on f, and a state met again by a better path is evaluated again
+	 * (an entry replaced by a better one is skipped when polled, see Visited.bestKey)
+	 * @param start initial state
+	 * @param listener listener informed of the progress of the search, can be null
+	 * @return the solution and the statistics of the search*/
+	static SearchStats algoASTAR(State start, SearchListener listener)
+	{
+		var stats = new SearchStats();
+		long begin = System.nanoTime();
+		if (!start.isSolvable())
+		{
+			stats.stop(begin);
+			return stats;
 		}
-		return solution;
+		// no cost to go from start to start
+		start.setG(0);
+		start.evaluate();
+		start.updateF();
+		start.checkState();
+		State goal = GraphSearch.solve(start, Frontier.priority(State::getF), Visited.bestKey(State::getF), stats, listener);
+		if (goal != null) stats.solution = goal.rebuildPath();
+		return stats;
 	}
-
-
 }
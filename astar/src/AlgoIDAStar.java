@@ -0,0 +1,68 @@
+package algo;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+
+/** this class propose an implementation of the iterative deepening a star algorithm (IDA*).
+ * a depth first search is launched with a bound on f, the bound is raised to the smallest f that exceeded it
+ * until the goal is reached. only the current path is kept in memory.
+ * @author emmanueladam */
+public class AlgoIDAStar {
+	/** value returned by the search when the goal is reached */
+	private static final int FOUND = -1;
+
+	/** states of the current path, to avoid loops */
+	private final HashSet<State> path = new HashSet<>();
+	/** goal state, null if not reached */
+	private State goal;
+
+	private AlgoIDAStar() {}
+
+	/** ida* algorithm to find the best path between two states
+	 * @param start initial state
+	 * @return the path from start to the goal, null if there is no solution*/
+	static LinkedList<State> algoIDASTAR(State start)
+	{
+		if (!start.isSolvable()) return null;
+		var ida = new AlgoIDAStar();
+		// no cost to go from start to start
+		start.setG(0);
+		start.evaluate();
+		start.updateF();
+		ida.path.add(start);
+		int threshold = start.getF();
+		while (ida.goal == null && threshold != Integer.MAX_VALUE)
+			threshold = ida.search(start, threshold);
+		return ida.goal == null ? null : ida.goal.rebuildPath();
+	}
+
+	/** depth first search from s, cut when f exceeds the threshold
+	 * @return FOUND if the goal is reached, else the smallest f that exceeded the threshold*/
+	private int search(State s, int threshold)
+	{
+		if (s.getF() > threshold) return s.getF();
+		if (s.checkState())
+		{
+			goal = s;
+			return FOUND;
+		}
+		int min = Integer.MAX_VALUE;
+		// the neighbours are built one at a time : only the ones of the current path are in memory
+		for(var it = s.successors(); it.hasNext(); )
+		{
+			State ndn = it.next();
+			// do not go back on the current path
+			if (path.contains(ndn)) continue;
+			ndn.setParent(s);
+			ndn.setG(s.getG() + ndn.costBetween(s));
+			ndn.evaluate();
+			ndn.updateF();
+			path.add(ndn);
+			int t = search(ndn, threshold);
+			path.remove(ndn);
+			if (t == FOUND) return FOUND;
+			min = Math.min(min, t);
+		}
+		return min;
+	}
+}
@@ -0,0 +1,193 @@
+package algo;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.PriorityQueue;
+
+/** this class propose an implementation of the weighted a star algorithm and of its anytime version ARA*
+ * (anytime repairing a*, Likhachev et al. 2003).<br>
+ * the weighted a star orders the nodes on g + w.h (w &ge; 1) : a solution is found faster,
+ * and its cost is at most w times the best one.<br>
+ * ARA* repeats weighted searches with a decreasing weight, reusing the work of the previous ones
+ * (the nodes improved after their expansion are kept aside, and reinserted for the next search).
+ * each solution is given to the listener with the current bound : the best cost is at least cost / bound.
+ * @author emmanueladam */
+public class AnytimeAStar {
+	/** a node to evaluate with its key when it has been inserted (the entry is outdated if the key has changed) */
+	private record Entry(double key, State state) {}
+
+	/** weight of the heuristic */
+	private double weight;
+	/** known states, a state is represented by a single node whose g and parent are updated */
+	private final HashMap<State, State> nodes = new HashMap<>();
+	/** nodes to evaluate, ordered on g + weight.h */
+	private final PriorityQueue<Entry> freeNodes = new PriorityQueue<>(Comparator.comparingDouble(Entry::key));
+	/** nodes that are in freeNodes with a valid entry */
+	private final HashSet<State> freeSet = new HashSet<>();
+	/** nodes developed during the current search */
+	private final HashSet<State> closedNodes = new HashSet<>();
+	/** nodes improved after their expansion during the current search */
+	private final HashSet<State> inconsistent = new HashSet<>();
+	/** best goal found */
+	private State goal;
+
+	private AnytimeAStar(State start, double weight) {
+		this.weight = weight;
+		// no cost to go from start to start
+		start.setG(0);
+		start.evaluate();
+		start.updateF();
+		nodes.put(start, start);
+		if (start.checkState()) goal = start;
+		push(start);
+	}
+
+	/** weighted a* algorithm : the cost of the path is at most weight times the best one
+	 * @param start initial state
+	 * @param weight weight of the heuristic (1 for a*)
+	 * @return the path from start to the goal, null if there is no solution
+	 * @throws IllegalArgumentException if the weight is less than 1*/
+	static LinkedList<State> algoWeightedASTAR(State start, double weight)
+	{
+		checkWeight(weight);
+		if (!start.isSolvable()) return null;
+		var wa = new AnytimeAStar(start, weight);
+		wa.improvePath(Long.MAX_VALUE);
+		return wa.goal == null ? null : wa.goal.rebuildPath();
+	}
+
+	/** anytime repairing a* : weighted searches with a weight decreased by step after each solution,
+	 * until the solution is proved to be the best one or the time budget is over
+	 * @param start initial state
+	 * @param weight weight of the heuristic for the first search
+	 * @param step decrease of the weight between two searches
+	 * @param budget max duration of the search in ms, 0 for no limit
+	 * @param listener receives each solution and its bound (onSolution), can be null
+	 * @return the last path found from start to the goal, null if there is no solution
+	 * @throws IllegalArgumentException if the weight is less than 1, the step is not positive or the budget is negative*/
+	static LinkedList<State> algoARASTAR(State start, double weight, double step, long budget, SearchListener listener)
+	{
+		checkWeight(weight);
+		if (!(step > 0)) throw new IllegalArgumentException("the step of the weight must be positive : " + step);
+		if (budget < 0) throw new IllegalArgumentException("the time budget must not be negative : " + budget);
+		if (!start.isSolvable()) return null;
+		long deadline = budget > 0 ? System.nanoTime() + budget * 1_000_000 : Long.MAX_VALUE;
+		var ara = new AnytimeAStar(start, weight);
+		LinkedList<State> solution = null;
+		boolean completed;
+		double bound = Double.POSITIVE_INFINITY;
+		// at least one search, even with a weight of 1 (then it is a*)
+		do
+		{
+			completed = ara.improvePath(deadline);
+			if (ara.goal == null) break;
+			if (completed)
+			{
+				bound = ara.bound(true);
+				solution = ara.goal.rebuildPath();
+				if (listener != null) listener.onSolution(solution, bound);
+				ara.weight = Math.max(1, ara.weight - step);
+				ara.restart();
+			}
+			// no time to finish the search : the goal found is returned if there is no previous solution
+			else if (solution == null)
+			{
+				solution = ara.goal.rebuildPath();
+				if (listener != null) listener.onSolution(solution, ara.bound(false));
+			}
+		}
+		while (completed && bound > 1);
+		return solution;
+	}
+
+	/** a weight less than 1 would not bound the cost of the solution by weight times the best one */
+	private static void checkWeight(double weight)
+	{
+		if (!(weight >= 1)) throw new IllegalArgumentException("the weight of the heuristic must be at least 1 : " + weight);
+	}
+
+	/** develop the nodes until the goal cannot be improved with the current weight
+	 * @param deadline time (System.nanoTime) at which the search is stopped
+	 * @return false if the search has been stopped by the deadline*/
+	private boolean improvePath(long deadline)
+	{
+		Entry e;
+		while ((e = peek()) != null && (goal == null || goal.getG() > e.key()))
+		{
+			if (System.nanoTime() > deadline) return false;
+			State s = freeNodes.poll().state();
+			freeSet.remove(s);
+			closedNodes.add(s);
+			for (State ndn : s.nextStates())
+			{
+				int g = s.getG() + ndn.costBetween(s);
+				State node = nodes.get(ndn);
+				if (node == null)
+				{
+					ndn.setParent(s);
+					ndn.setG(g);
+					ndn.evaluate();
+					ndn.updateF();
+					ndn.checkState();
+					nodes.put(ndn, ndn);
+					node = ndn;
+				}
+				else if (g < node.getG())
+				{
+					node.setParent(s);
+					node.setG(g);
+					node.updateF();
+				}
+				else continue;
+				if (node.isSuccess() && (goal == null || node.getG() < goal.getG())) goal = node;
+				if (closedNodes.contains(node)) inconsistent.add(node);
+				else push(node);
+			}
+		}
+		return true;
+	}
+
+	/** @param completed true if the last search has been completed, so the weight is also a bound
+	 * @return the bound of the current solution : min(weight, cost / smallest g+h of the nodes not developed),
+	 * or only cost / smallest g+h if the search has been stopped*/
+	private double bound(boolean completed)
+	{
+		int min = Integer.MAX_VALUE;
+		for (State s : freeSet) min = Math.min(min, s.getF());
+		for (State s : inconsistent) min = Math.min(min, s.getF());
+		if (min == Integer.MAX_VALUE) return 1;
+		double ratio = (double) goal.getG() / Math.max(min, 1);
+		return completed ? Math.min(weight, ratio) : ratio;
+	}
+
+	/** prepare a new search with the new weight : the inconsistent nodes are evaluated again, the closed nodes are forgotten */
+	private void restart()
+	{
+		freeSet.addAll(inconsistent);
+		inconsistent.clear();
+		closedNodes.clear();
+		freeNodes.clear();
+		for (State s : freeSet) freeNodes.add(new Entry(key(s), s));
+	}
+
+	private double key(State s) {
+		return s.getG() + weight * s.h;
+	}
+
+	private void push(State s) {
+		freeSet.add(s);
+		freeNodes.add(new Entry(key(s), s));
+	}
+
+	/** @return the first valid entry of freeNodes (the outdated entries are removed), null if there is none*/
+	private Entry peek() {
+		while (!freeNodes.isEmpty()) {
+			Entry e = freeNodes.peek();
+			if (freeSet.contains(e.state()) && e.key() == key(e.state())) return e;
+			freeNodes.poll();
+		}
+		return null;
+	}
+}
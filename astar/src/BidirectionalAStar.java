@@ -0,0 +1,162 @@
+package algo;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.PriorityQueue;
+
+/** this class propose an implementation of the bidirectional search MM ("meet in the middle", Holte et al. 2016),
+ * for the states whose goal is explicit (see ReversibleState).<br>
+ * a forward search goes from the start to the goal, a backward search goes from the goal to the start using
+ * previousStates. a node is ordered on pr = max(f, 2g) : so each search does not go further than
+ * the middle of the solution. when a node is reached by both searches, a path is found; the search stops when
+ * the cost of the best path found is not greater than a lower bound of the cost of any other path :
+ * the max of the smallest pr of both searches, of the smallest f of each search,
+ * and of the sum of the smallest g of both searches + the smallest cost of a move. so this path is the best one.
+ * @author emmanueladam */
+public class BidirectionalAStar {
+	/** order of the nodes : pr = max(f, 2g), then the smallest g */
+	private static final Comparator<State> PRIORITY =
+			Comparator.<State>comparingInt(s -> Math.max(s.getF(), 2 * s.getG())).thenComparingInt(State::getG);
+
+	/** one of the two searches */
+	private static class Side {
+		/** true for the search from the start */
+		final boolean forward;
+		/** nodes to evaluate (lazy deletion, see AlgoAStar) */
+		final PriorityQueue<State> freeNodes = new PriorityQueue<>(PRIORITY);
+		/** index on the nodes to evaluate */
+		final HashMap<State, State> freeIndex = new HashMap<>();
+		/** visited nodes */
+		final HashMap<State, State> closedNodes = new HashMap<>();
+		/** the nodes to evaluate ordered on g, and on f, for the lower bounds (same lazy deletion as freeNodes) */
+		final PriorityQueue<State> byG = new PriorityQueue<>(Comparator.comparingInt(State::getG));
+		final PriorityQueue<State> byF = new PriorityQueue<>(Comparator.comparingInt(State::getF));
+
+		Side(boolean forward, State root) {
+			this.forward = forward;
+			root.setG(0);
+			root.evaluate();
+			root.updateF();
+			add(root);
+		}
+
+		/** add a node to evaluate */
+		void add(State s) {
+			freeNodes.add(s);
+			byG.add(s);
+			byF.add(s);
+			freeIndex.put(s, s);
+		}
+
+		/** @return the node of the state in this search, null if it is not known */
+		State known(State s) {
+			State k = freeIndex.get(s);
+			return k != null ? k : closedNodes.get(s);
+		}
+
+		/** @return the next node to evaluate (outdated entries are removed), null if there is none */
+		State peek() {
+			return peek(freeNodes);
+		}
+
+		/** @return the first valid node of the queue (outdated entries are removed), null if there is none */
+		State peek(PriorityQueue<State> queue) {
+			while (!queue.isEmpty() && freeIndex.get(queue.peek()) != queue.peek())
+				queue.poll();
+			return queue.peek();
+		}
+	}
+
+	/** best path found : node of the forward search and node of the backward search for the same state */
+	private State meetForward;
+	private State meetBackward;
+	/** cost of the best path found */
+	private int bestCost = Integer.MAX_VALUE;
+
+	/** initial state, it gives the forward states of the backward search */
+	private final ReversibleState start;
+
+	private BidirectionalAStar(ReversibleState start) {
+		this.start = start;
+	}
+
+	/** bidirectional search of the best path between a state and its goal
+	 * @param start initial state
+	 * @return the path from start to the goal, null if there is no solution*/
+	static <S extends State & ReversibleState> LinkedList<State> algoMM(S start)
+	{
+		if (!start.isSolvable()) return null;
+		State goal = start.reverseState();
+		var mm = new BidirectionalAStar(start);
+		var forward = new Side(true, start);
+		var backward = new Side(false, goal);
+		if (start.equals(goal)) return start.rebuildPath();
+		while (forward.peek() != null && backward.peek() != null)
+		{
+			State f = forward.peek();
+			State b = backward.peek();
+			int prF = Math.max(f.getF(), 2 * f.getG());
+			int prB = Math.max(b.getF(), 2 * b.getG());
+			// no path can be cheaper than the lower bound
+			int bound = Math.max(Math.min(prF, prB),
+					Math.max(Math.max(forward.peek(forward.byF).getF(), backward.peek(backward.byF).getF()),
+							forward.peek(forward.byG).getG() + backward.peek(backward.byG).getG() + start.minimalCost()));
+			if (mm.bestCost <= bound) break;
+			if (prF <= prB) mm.expand(forward, backward);
+			else mm.expand(backward, forward);
+		}
+		return mm.meetForward == null ? null : mm.rebuildPath();
+	}
+
+	/** expand the best node of a search
+	 * @param side the search to develop
+	 * @param other the search in the other direction*/
+	private void expand(Side side, Side other)
+	{
+		State s = side.freeNodes.poll();
+		side.freeIndex.remove(s);
+		side.closedNodes.put(s, s);
+		for (State ndn : side.forward ? s.nextStates() : ((ReversibleState) s).previousStates())
+		{
+			ndn.setParent(s);
+			// in the backward search, the move goes from ndn to s
+			ndn.setG(s.getG() + (side.forward ? ndn.costBetween(s) : s.costBetween(ndn)));
+			State known = side.known(ndn);
+			if (known != null && known.getG() <= ndn.getG()) continue;
+			side.closedNodes.remove(ndn);
+			ndn.evaluate();
+			ndn.updateF();
+			side.add(ndn);
+			// the state has been reached by the other search : a path is found
+			State meet = other.known(ndn);
+			if (meet != null && ndn.getG() + meet.getG() < bestCost)
+			{
+				bestCost = ndn.getG() + meet.getG();
+				meetForward = side.forward ? ndn : meet;
+				meetBackward = side.forward ? meet : ndn;
+			}
+		}
+	}
+
+	/** @return the path from the start to the meeting point, followed by the path from the meeting point to the goal
+	 * (the nodes of the backward search, whose objective is the start, are rebuilt as forward states :
+	 * parent, cost from the start, heuristic and success are those of the forward search)*/
+	private LinkedList<State> rebuildPath()
+	{
+		var l = meetForward.rebuildPath();
+		State previous = meetForward;
+		for (State b = meetBackward.getParent(); b != null; b = b.getParent())
+		{
+			State s = start.forwardState(b);
+			s.setParent(previous);
+			s.setG(previous.getG() + s.costBetween(previous));
+			s.evaluate();
+			s.updateF();
+			s.checkState();
+			l.addLast(s);
+			previous = s;
+		}
+		return l;
+	}
+}
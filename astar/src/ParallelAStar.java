@@ -0,0 +1,165 @@
+package algo;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/** this class propose a parallel implementation of the a star algorithm (hash distributed a*, HDA*).
+ * each state belongs to one worker, chosen by the hash code of the state. a worker has its own free and closed nodes,
+ * and sends the states it generates to their owner through a lock free mailbox.<br>
+ * when a goal is reached, its cost becomes a bound : the states with a greater f are dropped.
+ * the search stops when no worker has a state under the bound and no state is waiting in a mailbox,
+ * so the solution is the best one (with an admissible heuristic).
+ * @author emmanueladam */
+public class ParallelAStar {
+	/** workers */
+	private final Worker[] workers;
+	/** nb of states waiting in a mailbox + nb of workers that are not idle; the search is over when it is 0 */
+	private final AtomicLong work = new AtomicLong();
+	/** cost of the best solution found */
+	private volatile int bestCost = Integer.MAX_VALUE;
+	/** best solution found */
+	private State best;
+	/** true when the search is over */
+	private volatile boolean done;
+
+	private ParallelAStar(int nbThreads) {
+		workers = new Worker[nbThreads];
+		for (int i = 0; i < nbThreads; i++) workers[i] = new Worker();
+	}
+
+	/** parallel a* algorithm to find the best path between two states
+	 * @param start initial state
+	 * @param nbThreads nb of workers
+	 * @return the path from start to the goal, null if there is no solution
+	 * @throws IllegalArgumentException if nbThreads is not positive*/
+	static LinkedList<State> algoHDASTAR(State start, int nbThreads)
+	{
+		if (nbThreads <= 0) throw new IllegalArgumentException("the nb of workers must be positive : " + nbThreads);
+		if (!start.isSolvable()) return null;
+		// no cost to go from start to start
+		start.setG(0);
+		start.evaluate();
+		start.updateF();
+		// the goal is tested on the states generated by the workers, so the start is tested here
+		if (start.checkState()) return start.rebuildPath();
+		var hda = new ParallelAStar(nbThreads);
+		hda.send(start);
+		var threads = new Thread[nbThreads];
+		for (int i = 0; i < nbThreads; i++) {
+			threads[i] = new Thread(hda.workers[i], "hda*-" + i);
+			threads[i].start();
+		}
+		try {
+			for (Thread t : threads) t.join();
+		} catch (InterruptedException e) {
+			hda.done = true;
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		return hda.best == null ? null : hda.best.rebuildPath();
+	}
+
+	/** send a state to the mailbox of its owner */
+	private void send(State s) {
+		int h = s.hashCode();
+		work.incrementAndGet();
+		workers[Math.floorMod(h ^ (h >>> 16), workers.length)].mailbox.add(s);
+	}
+
+	/** keep the goal if it is better than the best solution found */
+	private synchronized void offerSolution(State goal) {
+		if (goal.getG() < bestCost) {
+			best = goal;
+			bestCost = goal.getG();
+		}
+	}
+
+	/** a worker, owner of the states whose hash code leads to it */
+	private class Worker implements Runnable {
+		/** states sent by the other workers */
+		final ConcurrentLinkedQueue<State> mailbox = new ConcurrentLinkedQueue<>();
+		/** nodes to evaluate, ordered on f (lazy deletion, see AlgoAStar) */
+		final PriorityQueue<State> freeNodes = new PriorityQueue<>();
+		/** index on the nodes to evaluate */
+		final HashMap<State, State> freeIndex = new HashMap<>();
+		/** visited nodes */
+		final HashMap<State, State> closedNodes = new HashMap<>();
+
+		@Override
+		public void run() {
+			// a worker starts idle, it becomes active when it receives a state
+			boolean active = false;
+			while (!done) {
+				if (!active) {
+					if (mailbox.isEmpty()) {
+						if (work.get() == 0) done = true;
+						else LockSupport.parkNanos(1000);
+						continue;
+					}
+					work.incrementAndGet();
+					active = true;
+				}
+				State m;
+				while ((m = mailbox.poll()) != null) {
+					receive(m);
+					work.decrementAndGet();
+				}
+				State s = nextNode();
+				if (s != null) expand(s);
+				else if (mailbox.isEmpty()) {
+					active = false;
+					work.decrementAndGet();
+				}
+			}
+		}
+
+		/** add a state to the nodes to evaluate if it is not already known with a better f */
+		void receive(State ndn) {
+			if (ndn.getF() >= bestCost) return;
+			State known = closedNodes.get(ndn);
+			if (known != null)
+				if (known.getF() > ndn.getF()) closedNodes.remove(ndn);
+				else return;
+			else {
+				known = freeIndex.get(ndn);
+				if (known != null && known.getF() <= ndn.getF()) return;
+			}
+			freeNodes.add(ndn);
+			freeIndex.put(ndn, ndn);
+		}
+
+		/** @return the node having a F minimal, or null if there is none under the best solution */
+		State nextNode() {
+			while (!freeNodes.isEmpty()) {
+				State s = freeNodes.poll();
+				if (freeIndex.get(s) != s) continue;
+				freeIndex.remove(s);
+				if (s.getF() >= bestCost) {
+					// the other nodes cannot lead to a better solution
+					freeNodes.clear();
+					freeIndex.clear();
+					return null;
+				}
+				closedNodes.put(s, s);
+				return s;
+			}
+			return null;
+		}
+
+		/** evaluate the neighbours of s and send them to their owner */
+		void expand(State s) {
+			for (State ndn : s.nextStates()) {
+				ndn.setParent(s);
+				ndn.setG(s.getG() + ndn.costBetween(s));
+				ndn.evaluate();
+				ndn.updateF();
+				if (ndn.checkState()) offerSolution(ndn);
+				else if (ndn.getF() < bestCost) send(ndn);
+			}
+		}
+	}
+}
@@ -0,0 +1,331 @@
+package algo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**an additive pattern database for the "taquin" game.<br>
+ * the blocs are split in disjoint patterns (ex. "ABCDG", "EFIJM", "HKLNO"). For each pattern, a table gives,
+ * for each placement of its blocs, the minimal nb of moves of these blocs needed to reach the objective.
+ * A placement of k blocs on n positions is indexed by its rank among the n!/(n-k)! placements
+ * (for 5 blocs of the 4x4 square, 524160 entries instead of 16^5).
+ * As only the moves of the blocs of a pattern are counted, the values of the patterns can be added.<br>
+ * the tables are computed by a breadth first search from the objective, and can be saved in a file
+ * that is then memory mapped, so that several solvers share the same pages.
+ * @author emmanueladam
+ * */
+public class PatternDatabase {
+    /**first int of a pattern database file*/
+    private static final int MAGIC = 0x54415150;
+    /**second int of a pattern database file : version of the format (2 : the placements are indexed by their rank)*/
+    private static final int VERSION = 2;
+    /**value of an unreached entry*/
+    private static final byte UNKNOWN = -1;
+    /**default partition of the 15 blocs of the 4x4 taquin*/
+    static final String[] DEFAULT_PATTERNS = {"ABCDG", "EFIJM", "HKLNO"};
+
+    /**dim of the square*/
+    private final int dim;
+    /**objective, in the same format as in StateTaquin*/
+    private final String objective;
+    /**blocs of each pattern*/
+    private final String[] patterns;
+    /**tables[i] gives the cost of the pattern i, indexed by the rank of the placement of its blocs (see rank)*/
+    private final ByteBuffer[] tables;
+    /**patternOf[c] is the pattern of the bloc c, -1 if c is in no pattern*/
+    private final int[] patternOf = new int[128];
+    /**order[c] is the rank of the bloc c in its pattern*/
+    private final int[] order = new int[128];
+    /**digit[c] is the weight of the bloc c in the index of its pattern ((n-j-1)...(n-k+1)(n-k) for the bloc j of k)*/
+    private final int[] digit = new int[128];
+
+    private PatternDatabase(int dim, String objective, String[] patterns, ByteBuffer[] tables) {
+        this.dim = dim;
+        this.objective = objective;
+        this.patterns = patterns;
+        this.tables = tables;
+        Arrays.fill(patternOf, -1);
+        for(int i=0; i<patterns.length; i++)
+            for(int k=0; k<patterns[i].length(); k++)
+            {
+                char c = patterns[i].charAt(k);
+                patternOf[c] = i;
+                order[c] = k;
+                digit[c] = placements(dim*dim - k - 1, patterns[i].length() - k - 1);
+            }
+    }
+
+    /**@return the sum of the costs of the patterns for the board
+     * (the indexes are read on the board, without allocation : it is called for each state built).
+     * the positions are met in increasing order, so the rank of a bloc (see rank) is its position
+     * minus the nb of blocs already met that come before it in the pattern*/
+    public int evaluate(String sequence) {
+        int h = 0;
+        for(int i=0; i<patterns.length; i++)
+        {
+            int index = 0;
+            // bit j is set when the bloc j of the pattern has been met
+            int met = 0;
+            for(int pos=0; pos<sequence.length(); pos++)
+            {
+                char c = sequence.charAt(pos);
+                if (patternOf[c] != i) continue;
+                int j = order[c];
+                index += (pos - Integer.bitCount(met & ((1 << j) - 1))) * digit[c];
+                met |= 1 << j;
+            }
+            h += tables[i].get(index) & 0xFF;
+        }
+        return h;
+    }
+
+    /**@return the index of a placement of k blocs on n positions, between 0 and n!/(n-k)! - 1 :
+     * the bloc j is at the position tiles[j], its digit is the nb of free positions before it
+     * once the blocs 0..j-1 are placed (between 0 and n-j-1)*/
+    static int rank(int[] tiles, int n) {
+        int index = 0;
+        for(int j=0; j<tiles.length; j++)
+        {
+            int r = tiles[j];
+            for(int m=0; m<j; m++)
+                if (tiles[m] < tiles[j]) r--;
+            index = index * (n - j) + r;
+        }
+        return index;
+    }
+
+    /**@return the nb of placements of k blocs on n positions, n!/(n-k)!*/
+    private static int placements(int n, int k) {
+        int r = 1;
+        for(int i=0; i<k; i++) r *= n - i;
+        return r;
+    }
+
+    public int getDim() { return dim; }
+    public String getObjective() { return objective; }
+
+    /**build the pattern database
+     * @param dim dim of the square
+     * @param objective objective, in the same format as in StateTaquin
+     * @param patterns disjoint sets of blocs (the empty bloc is not part of a pattern)*/
+    public static PatternDatabase build(int dim, String objective, String... patterns) {
+        var tables = new ByteBuffer[patterns.length];
+        for(int i=0; i<patterns.length; i++)
+            tables[i] = ByteBuffer.wrap(buildTable(dim, objective, patterns[i]));
+        return new PatternDatabase(dim, objective, patterns.clone(), tables);
+    }
+
+    /**backward breadth first search from the objective on the positions of the blocs of the pattern and of the empty bloc.
+     * moving a bloc of the pattern costs 1, moving another bloc costs 0, so the states of a level are first
+     * completed by the moves of cost 0 before building the next level.
+     * the search indexes the positions of the blocs by digits in base dim*dim, the table is then indexed by rank.
+     * @return the table of the pattern, indexed by the rank of the placement of its blocs*/
+    private static byte[] buildTable(int dim, String objective, String pattern) {
+        int n = dim*dim;
+        int k = pattern.length();
+        int tableSize = pow(n, k);
+        int[] weight = new int[k];
+        for(int j=0; j<k; j++) weight[j] = pow(n, j);
+        int[][] around = new int[n][];
+        for(int pos=0; pos<n; pos++) around[pos] = neighbours(pos, dim);
+        // a state is the index of the positions of the blocs + tableSize * position of the empty bloc
+        byte[] dist = new byte[tableSize * n];
+        Arrays.fill(dist, UNKNOWN);
+        byte[] table = new byte[tableSize];
+        Arrays.fill(table, UNKNOWN);
+
+        int[] tiles = new int[k];
+        int start = objective.indexOf('_') * tableSize;
+        for(int j=k-1; j>=0; j--)
+        {
+            tiles[j] = objective.indexOf(pattern.charAt(j));
+            start += tiles[j] * weight[j];
+        }
+        dist[start] = 0;
+        var level = new IntList();
+        level.add(start);
+        int d = 0;
+        while (level.size > 0)
+        {
+            var next = new IntList();
+            for(int i=0; i<level.size; i++)
+            {
+                int state = level.values[i];
+                int blank = state / tableSize;
+                int index = state % tableSize;
+                for(int j=0, rest=index; j<k; j++, rest/=n) tiles[j] = rest % n;
+                for(int nb : around[blank])
+                {
+                    int j = 0;
+                    while (j<k && tiles[j]!=nb) j++;
+                    if (j<k)
+                    {
+                        // a bloc of the pattern goes in the empty place : cost 1
+                        int ns = index + (blank - nb) * weight[j] + nb * tableSize;
+                        if (dist[ns] == UNKNOWN)
+                        {
+                            dist[ns] = (byte)(d+1);
+                            next.add(ns);
+                        }
+                    }
+                    else
+                    {
+                        // another bloc goes in the empty place : cost 0, the state belongs to the current level
+                        int ns = index + nb * tableSize;
+                        if (dist[ns] == UNKNOWN || (dist[ns] & 0xFF) > d)
+                        {
+                            dist[ns] = (byte) d;
+                            level.add(ns);
+                        }
+                    }
+                }
+                if (table[index] == UNKNOWN) table[index] = (byte) d;
+            }
+            // keep only the states of the next level that have not been reached with a cost 0 move
+            level = new IntList();
+            for(int i=0; i<next.size; i++)
+                if ((dist[next.values[i]] & 0xFF) == d+1) level.add(next.values[i]);
+            d++;
+        }
+        byte[] compact = new byte[placements(n, k)];
+        for(int index=0; index<tableSize; index++)
+        {
+            if (table[index] == UNKNOWN) continue;
+            for(int j=0, rest=index; j<k; j++, rest/=n) tiles[j] = rest % n;
+            compact[rank(tiles, n)] = table[index];
+        }
+        return compact;
+    }
+
+    /**@return the positions next to pos*/
+    private static int[] neighbours(int pos, int dim) {
+        var l = new IntList();
+        if ((pos+1)%dim != 0) l.add(pos+1);
+        if (pos%dim != 0) l.add(pos-1);
+        if (pos+dim < dim*dim) l.add(pos+dim);
+        if (pos-dim >= 0) l.add(pos-dim);
+        return Arrays.copyOf(l.values, l.size);
+    }
+
+    private static int pow(int a, int b) {
+        int r = 1;
+        for(int i=0; i<b; i++) r *= a;
+        return r;
+    }
+
+    /**save the database : magic, version, dim, objective, nb of patterns, the patterns, then the tables*/
+    public void save(Path file) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(dim);
+            writeString(out, objective);
+            out.writeInt(patterns.length);
+            for(String p : patterns) writeString(out, p);
+            for(ByteBuffer t : tables)
+            {
+                byte[] b = new byte[t.capacity()];
+                t.get(0, b);
+                out.write(b);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.US_ASCII);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(ByteBuffer in, Path file) throws IOException {
+        int length = readInt(in, file);
+        if (length < 0 || length > in.remaining()) throw new IOException(file + " is truncated or corrupted");
+        byte[] b = new byte[length];
+        in.get(b);
+        return new String(b, StandardCharsets.US_ASCII);
+    }
+
+    private static int readInt(ByteBuffer in, Path file) throws IOException {
+        if (in.remaining() < Integer.BYTES) throw new IOException(file + " is truncated");
+        return in.getInt();
+    }
+
+    /**memory map a database saved by save; the pages are shared by all the processes that map the file
+     * @throws IOException if the file is not a pattern database of this version, its header is not consistent
+     * (objective, disjoint patterns of blocs of the objective), or its size is not the one of its tables*/
+    public static PatternDatabase load(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (readInt(in, file) != MAGIC) throw new IOException(file + " is not a pattern database");
+            if (readInt(in, file) != VERSION) throw new IOException(file + " is a pattern database of another version");
+            int dim = readInt(in, file);
+            if (dim < 2 || dim > 7) throw new IOException(file + " : wrong dim " + dim);
+            String objective = readString(in, file);
+            int nbPatterns = readInt(in, file);
+            if (objective.length() != dim*dim || nbPatterns < 0 || nbPatterns > dim*dim)
+                throw new IOException(file + " : wrong header");
+            var patterns = new String[nbPatterns];
+            boolean[] used = new boolean[128];
+            long expected = 0;
+            for(int i=0; i<patterns.length; i++)
+            {
+                patterns[i] = readString(in, file);
+                for(char c : patterns[i].toCharArray())
+                {
+                    if (c >= 128 || c == '_' || objective.indexOf(c) < 0 || used[c])
+                        throw new IOException(file + " : wrong pattern " + patterns[i]);
+                    used[c] = true;
+                }
+                expected += placements(dim*dim, patterns[i].length());
+            }
+            int offset = in.position();
+            if (channel.size() != offset + expected)
+                throw new IOException(file + " has " + channel.size() + " bytes, " + (offset + expected) + " expected");
+            var tables = new ByteBuffer[patterns.length];
+            for(int i=0; i<patterns.length; i++)
+            {
+                int size = placements(dim*dim, patterns[i].length());
+                tables[i] = in.slice(offset, size);
+                offset += size;
+            }
+            return new PatternDatabase(dim, objective, patterns, tables);
+        }
+    }
+
+    /**load the database of the file, or build it for the 4x4 square with the default patterns and save it
+     * if the file does not exist, or is not a valid database of these patterns (truncated, of a previous version...)*/
+    public static PatternDatabase loadOrBuild(Path file) throws IOException {
+        String objective = StateTaquin.defaultObjective(4);
+        if (Files.exists(file))
+        {
+            try {
+                var pdb = load(file);
+                if (pdb.dim == 4 && pdb.objective.equals(objective) && Arrays.equals(pdb.patterns, DEFAULT_PATTERNS))
+                    return pdb;
+            } catch (IOException e) {
+                // the file is rebuilt
+            }
+        }
+        var pdb = build(4, objective, DEFAULT_PATTERNS);
+        pdb.save(file);
+        return pdb;
+    }
+
+    /**minimal growable list of int*/
+    private static class IntList {
+        int[] values = new int[16];
+        int size;
+
+        void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size*2);
+            values[size++] = v;
+        }
+    }
+}
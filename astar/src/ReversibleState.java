@@ -0,0 +1,23 @@
+package algo;
+
+import java.util.LinkedList;
+
+/**a state whose goal is explicit and whose moves can be followed backward, so that it can be searched
+ * from both ends (see BidirectionalAStar)
+ * @author emmanueladam
+ * */
+public interface ReversibleState {
+    /** @return the states from which this state can be reached in one move (used by the backward search) */
+    LinkedList<State> previousStates();
+
+    /** @return the goal state, set so that its evaluate and checkState lead back to this state
+     * (the root of the backward search) */
+    State reverseState();
+
+    /** @param backward a state of the backward search (built from reverseState)
+     * @return the same state for the forward search, with the objective of this state */
+    State forwardState(State backward);
+
+    /** @return the smallest cost of a move (a lower bound, used to stop the bidirectional search sooner) */
+    int minimalCost();
+}
@@ -0,0 +1,13 @@
+package algo;
+
+import java.util.LinkedList;
+
+/**listener of a search, to follow its progress (all the methods do nothing by default) :
+ * onExpand, onGenerate and onGoal are the ones of search.SearchListener, called by GraphSearch
+ * @author emmanueladam */
+public interface SearchListener extends search.SearchListener<State> {
+	/**called by an anytime search for each solution found
+	 * @param path path from the start to the goal
+	 * @param bound the cost of the path is at most bound times the best cost*/
+	default void onSolution(LinkedList<State> path, double bound) {}
+}
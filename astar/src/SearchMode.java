@@ -0,0 +1,14 @@
+package algo;
+
+/**algorithms that can be used to find a path between two states (see AlgoAStar.solve)
+ * @author emmanueladam */
+public enum SearchMode {
+	/**a star, keeps all the visited states in memory*/
+	ASTAR,
+	/**iterative deepening a star, memory linear in the depth of the solution*/
+	IDASTAR,
+	/**parallel a star, the states are shared out between one worker by processor*/
+	HDASTAR,
+	/**bidirectional search MM, for the states whose goal is explicit (see ReversibleState)*/
+	BIDIRECTIONAL
+}
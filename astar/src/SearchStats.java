@@ -0,0 +1,30 @@
+package algo;
+
+import java.util.LinkedList;
+
+/**result of a search : the solution and the statistics of the search (see search.SearchStats)
+ * @author emmanueladam */
+public class SearchStats extends search.SearchStats {
+	/**path from the start to the goal, null if there is no solution*/
+	LinkedList<State> solution;
+
+	public LinkedList<State> getSolution() { return solution; }
+	/**@return the cost of the solution, -1 if there is no solution*/
+	public int getCost() { return solution == null ? -1 : solution.getLast().getG(); }
+
+	/**the search ends without developing a state
+	 * @param begin time of the beginning of the search, in nanoseconds*/
+	void stop(long begin) { elapsed = System.nanoTime() - begin; }
+
+	@Override
+	public String toString() {
+		return "SearchStats{" +
+				"cost=" + getCost() +
+				", expanded=" + expanded +
+				", generated=" + generated +
+				", reopened=" + reopened +
+				", peakFree=" + peakFree +
+				", elapsed=" + elapsed/1_000_000 + " ms" +
+				'}';
+	}
+}
@@ -1,11 +1,14 @@
 package algo;
 
+import search.SearchState;
+
 import java.util.LinkedList;
 
 /**a generic state for the A star algorithm
+ * (the path and the stream of successors are given by SearchState, see the searchCore folder)
  * @author emmanueladam
  * */
-public abstract class State implements Comparable<State>{
+public abstract class State implements Comparable<State>, SearchState<State> {
     /**estimated cost from the initial state to the final one, though this state*/
     int f;
     /**cost from the initial state*/
@@ -19,27 +22,37 @@ public abstract class State implements Comparable<State>{
     /**parent of the state*/
     State parent;
 
-    /**evaluate the cost to the final state*/
+    /**evaluate the cost to the final state
+     * (called by AlgoAStar after setParent, so the value can be updated from the one of the parent)*/
     abstract int evaluate();
-    /**return the states reachable from the current state*/
-    public abstract LinkedList<State> nextStates();
+    /**return the states reachable from the current state, all built at once
+     * (the states given by successors, that a subclass implements)*/
+    public LinkedList<State> nextStates() {
+        var l = new LinkedList<State>();
+        successors().forEachRemaining(l::add);
+        return l;
+    }
+
+    /** g, h and f are computed from the parent, and the success is checked (used by GraphSearch) */
+    @Override
+    public void reached(State parent) {
+        setParent(parent);
+        setG(parent.getG() + costBetween(parent));
+        evaluate();
+        updateF();
+        checkState();
+    }
+
+    /** @return the estimated cost to the final state (h) */
+    @Override
+    public double heuristic() { return h; }
     /**check and return is the state a success (= a leaf without conflict)*/
     public abstract boolean checkState();
     /** @return the cost from a direct parent p */
     public abstract int costBetween(State p);
 
-    /** return the path from start to the node n*/
-    LinkedList<State> rebuildPath()
-    {
-        var l = new LinkedList<State>();
-        State s = this;
-        while (s!=null)
-        {
-            l.addFirst(s);
-            s = s.getParent();
-        }
-        return l;
-    }
+    /** @return false if it is known that no goal can be reached from this state (checked before a search starts) */
+    public boolean isSolvable() { return true; }
 
     /**update f = g+h*/
     public void updateF() {  f = g+h;}
@@ -48,9 +61,12 @@ public abstract class State implements Comparable<State>{
     public void setG(int g) { this.g = g; }
 
     public boolean isLeaf() { return leaf; }
+    @Override
     public boolean isSuccess() { return success;}
 
+    @Override
     public State getParent() { return parent; }
+    @Override
     public void setParent(State parent) { this.parent = parent; }
 
     /**compare the state basis on the f value*/
@@ -1,93 +1,282 @@
 package algo;
 
+import search.Frontier;
+import search.Visited;
+
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.NoSuchElementException;
 
 /**a class that represent a "taquin" game
- * the objective is to move an empty square to reorder the blocs. i.e to reach
+ * the objective is to move an empty square to reorder the blocs. i.e to reach, by default for a 4x4 square,
  * ABCD
  * EFGH
  * IJKL
  * MNO_ (_ is the empty bloc)
+ * the dim of the square is given by the length of the sequence (9 for 3x3, 16 for 4x4, 25 for 5x5...),
+ * and another objective can be given
  * @author emmanueladam 
  * */
-public class StateTaquin extends State{
+public class StateTaquin extends State implements ReversibleState {
     /**representation of the objective in a string*/
-    static final String objective= "ABCDEFGHIJKLMNO_";
+    final String objective;
     /**dim of the square*/
-    static final int dim = 4;
+    final int dim;
+    /**goalPosition[c] is the position of the bloc c in the objective (shared by all the states of a search)*/
+    final int[] goalPosition;
+    /**if true, the heuristic adds the linear conflicts to the manhattan distances*/
+    static boolean linearConflict = false;
+    /**scratch arrays of lineConflicts, one per thread*/
+    private static final ThreadLocal<int[]> lineBuffers = ThreadLocal.withInitial(() -> new int[0]);
+    /**if not null, the heuristic is at least the value given by this pattern database*/
+    static PatternDatabase patternDatabase = null;
     /**representation of the state in a string*/
     String sequence;
+    /**position of the empty bloc in the sequence*/
+    int blank;
+    /**sum of the manhattan distances, -1 if not yet evaluated*/
+    int manhattan = -1;
+    /**number of blocs to move out of their line because of a linear conflict*/
+    int conflicts;
 
+    /**@param sequence the board, line by line, with the default objective*/
     public StateTaquin(String sequence) {
-        this.sequence = sequence;  }
+        this(sequence, defaultObjective((int)Math.round(Math.sqrt(sequence.length()))));  }
 
-    /**here, the heuristic is the sum of the manathan distances
-     * between each letter and its final position
-     * */
+    /**@param sequence the board, line by line
+     * @param objective the board to reach, made of the same blocs
+     * @throws IllegalArgumentException if the sequence is not a permutation of the objective, made of distinct blocs with one _*/
+    public StateTaquin(String sequence, String objective) {
+        int d = (int)Math.round(Math.sqrt(objective.length()));
+        if (d*d != objective.length() || sequence.length() != objective.length())
+            throw new IllegalArgumentException("the sequence and the objective must fill the same square");
+        this.sequence = sequence;
+        this.objective = objective;
+        this.dim = d;
+        this.blank = sequence.indexOf('_');
+        goalPosition = new int[128];
+        Arrays.fill(goalPosition, -1);
+        for(int i=0; i<objective.length(); i++)
+        {
+            char c = objective.charAt(i);
+            if (c >= 128)
+                throw new IllegalArgumentException("the bloc " + c + " of the objective is not an ascii char");
+            if (goalPosition[c] != -1)
+                throw new IllegalArgumentException("the bloc " + c + " is twice in the objective");
+            goalPosition[c] = i;
+        }
+        if (goalPosition['_'] == -1)
+            throw new IllegalArgumentException("the objective has no empty bloc _");
+        // the sequence and the objective have the same length : the sequence is a permutation of the objective
+        // if each of its blocs is in the objective, once
+        boolean[] placed = new boolean[objective.length()];
+        for(int i=0; i<sequence.length(); i++)
+        {
+            char c = sequence.charAt(i);
+            if (c >= 128 || goalPosition[c] == -1)
+                throw new IllegalArgumentException("the bloc " + c + " is not in the objective");
+            if (placed[goalPosition[c]])
+                throw new IllegalArgumentException("the bloc " + c + " is twice in the sequence");
+            placed[goalPosition[c]] = true;
+        }
+    }
+
+    /**state obtained from parent p by moving the empty bloc*/
+    private StateTaquin(StateTaquin p, String sequence, int blank) {
+        this.sequence = sequence;
+        this.objective = p.objective;
+        this.dim = p.dim;
+        this.goalPosition = p.goalPosition;
+        this.blank = blank;  }
+
+    /**@return the default objective of a square of dim x dim (dim <= 7) : the blocs A, B, C... then the empty bloc*/
+    static String defaultObjective(int dim) {
+        var sb = new StringBuilder();
+        for(char c='A'; sb.length()<dim*dim-1; c++)
+            if (c != '_') sb.append(c);
+        return sb.append('_').toString();
+    }
+
+    /**a move swaps the empty bloc with a neighbour, so it changes both the parity of the permutation
+     * from the objective and the parity of the manhattan distance of the empty bloc to its goal.
+     * @return true if these two parities are equal, i.e. if the objective can be reached*/
     @Override
-    int evaluate() {
-        h=0;
-        for(int i=0; i<StateTaquin.dim*StateTaquin.dim; i++)
+    public boolean isSolvable() {
+        int n = dim*dim;
+        // parity of the permutation = parity of (n - nb of cycles)
+        boolean[] seen = new boolean[n];
+        int cycles = 0;
+        for(int i=0; i<n; i++)
         {
-            int lo = i/StateTaquin.dim;
-            int co = i - lo*StateTaquin.dim;
-            int pos = sequence.indexOf(StateTaquin.objective.charAt(i));
-            int lc = pos/StateTaquin.dim;
-            int cc = pos - lc*StateTaquin.dim;
-            h += Math.abs(lo-lc) + Math.abs(co-cc);
+            if (seen[i]) continue;
+            cycles++;
+            for(int j=i; !seen[j]; j=goalPosition[sequence.charAt(j)])
+                seen[j] = true;
         }
-        return h;
+        return (n - cycles)%2 == distance(blank, goalPosition['_'])%2;
     }
 
-    /**
-     * @return the liste of states reachable by moving the empty square (_)
+    /**here, the heuristic is the sum of the manathan distances
+     * between each letter and its final position,
+     * plus 2 moves for each bloc in linear conflict if linearConflict is set,
+     * or the value of the pattern database if it is set and greater.<br>
+     * If the parent has already been evaluated, only the bloc that has moved from the parent is reevaluated
      * */
     @Override
-    public LinkedList<State> nextStates() {
-        var neighbouring = new LinkedList<State>();
-        int pos =sequence.indexOf("_");
-        if ((pos+1)%StateTaquin.dim!=0)
+    int evaluate() {
+        if (parent instanceof StateTaquin p && p.manhattan >= 0)
+        {
+            // the bloc now at p.blank was at this.blank in the parent
+            int goal = goalPosition[sequence.charAt(p.blank)];
+            manhattan = p.manhattan + distance(p.blank, goal) - distance(blank, goal);
+            if (linearConflict)
+            {
+                // a horizontal move changes only the columns of the two positions, a vertical one only their rows
+                boolean row = (blank%dim == p.blank%dim);
+                int l1 = row ? blank/dim : blank%dim;
+                int l2 = row ? p.blank/dim : p.blank%dim;
+                int[] buffer = lineBuffer();
+                conflicts = p.conflicts + lineConflicts(row, l1, buffer) + lineConflicts(row, l2, buffer)
+                        - p.lineConflicts(row, l1, buffer) - p.lineConflicts(row, l2, buffer);
+            }
+        }
+        else
         {
-            byte[] tab = sequence.getBytes();
-            byte b = tab[pos];
-            tab[pos] = tab[pos+1];
-            tab[pos+1] = b;
-            String s = new String(tab);
-            neighbouring.add(new StateTaquin(s));
+            manhattan = 0;
+            for(int pos=0; pos<dim*dim; pos++)
+            {
+                char c = sequence.charAt(pos);
+                if (c != '_') manhattan += distance(pos, goalPosition[c]);
+            }
+            conflicts = 0;
+            if (linearConflict)
+            {
+                int[] buffer = lineBuffer();
+                for(int l=0; l<dim; l++)
+                    conflicts += lineConflicts(true, l, buffer) + lineConflicts(false, l, buffer);
+            }
         }
-        if (pos%StateTaquin.dim  != 0)
+        h = manhattan + 2*conflicts;
+        if (patternDatabase != null && patternDatabase.getObjective().equals(objective))
+            h = Math.max(h, patternDatabase.evaluate(sequence));
+        return h;
+    }
+
+    /**@return the manhattan distance between two positions*/
+    private int distance(int pos1, int pos2) {
+        return Math.abs(pos1/dim - pos2/dim) + Math.abs(pos1%dim - pos2%dim);
+    }
+
+    /**@return the scratch array of lineConflicts for the current thread, of at least 2*dim ints
+     * (no array is built for each evaluation, and the threads of a parallel search do not share it)*/
+    private int[] lineBuffer() {
+        int[] buffer = lineBuffers.get();
+        if (buffer.length < 2*dim)
         {
-            byte[] tab = sequence.getBytes();
-            byte b = tab[pos];
-            tab[pos] = tab[pos-1];
-            tab[pos-1] = b;
-            String s = new String(tab);
-            neighbouring.add(new StateTaquin(s));
+            buffer = new int[2*dim];
+            lineBuffers.set(buffer);
         }
-        if ((pos+StateTaquin.dim)<StateTaquin.dim*StateTaquin.dim)
+        return buffer;
+    }
+
+    /**
+     * @param row true for a row, false for a column
+     * @param line no of the row or of the column
+     * @param buffer scratch array of at least 2*dim ints : the goals of the blocs of the line, then their longest increasing subsequences
+     * @return the minimal nb of blocs to take out of the line so that the blocs whose goal is in this line are well ordered
+     * */
+    private int lineConflicts(boolean row, int line, int[] buffer) {
+        int n = 0;
+        for(int k=0; k<dim; k++)
         {
-            byte[] tab = sequence.getBytes();
-            byte b = tab[pos];
-            tab[pos] = tab[pos+StateTaquin.dim];
-            tab[pos+StateTaquin.dim] = b;
-            String s = new String(tab);
-            neighbouring.add(new StateTaquin(s));
+            char c = sequence.charAt(row ? line*dim + k : k*dim + line);
+            if (c == '_') continue;
+            int goal = goalPosition[c];
+            if (row && goal/dim == line) buffer[n++] = goal%dim;
+            else if (!row && goal%dim == line) buffer[n++] = goal/dim;
         }
-        if ((pos-StateTaquin.dim)>=0)
+        // blocs to take out = n - length of the longest increasing subsequence (the one ending at i is in buffer[dim+i])
+        int best = 0;
+        for(int i=0; i<n; i++)
         {
-            byte[] tab = sequence.getBytes();
-            byte b = tab[pos];
-            tab[pos] = tab[pos-StateTaquin.dim];
-            tab[pos-StateTaquin.dim] = b;
-            String s = new String(tab);
-            neighbouring.add(new StateTaquin(s));
+            int lis = 1;
+            for(int j=0; j<i; j++)
+                if (buffer[j] < buffer[i]) lis = Math.max(lis, buffer[dim+j]+1);
+            buffer[dim+i] = lis;
+            best = Math.max(best, lis);
         }
-        return neighbouring;
+        return n - best;
+    }
+
+    /**@return the state obtained by moving the bloc at position pos into the empty bloc*/
+    private StateTaquin slide(int pos) {
+        char[] tab = sequence.toCharArray();
+        tab[blank] = tab[pos];
+        tab[pos] = '_';
+        return new StateTaquin(this, new String(tab), pos);
+    }
+
+    /**@return the position of the k-th neighbour of the empty bloc (0 right, 1 left, 2 down, 3 up), -1 if it is outside*/
+    private int around(int k) {
+        return switch (k) {
+            case 0 -> (blank+1)%dim != 0 ? blank+1 : -1;
+            case 1 -> blank%dim != 0 ? blank-1 : -1;
+            case 2 -> blank+dim < dim*dim ? blank+dim : -1;
+            default -> blank-dim >= 0 ? blank-dim : -1;
+        };
     }
 
+    /**
+     * @return the states reachable by moving the empty square (_), each one is built when it is asked
+     * */
+    @Override
+    public Iterator<State> successors() {
+        return new Iterator<>() {
+            /**next neighbour to build, 4 if there is none*/
+            int k = skip(0);
+
+            private int skip(int from) {
+                while (from < 4 && around(from) == -1) from++;
+                return from;
+            }
+
+            public boolean hasNext() { return k < 4; }
+
+            public State next() {
+                if (k == 4) throw new NoSuchElementException();
+                State s = slide(around(k));
+                k = skip(k+1);
+                return s;
+            }
+        };
+    }
+
+    /**the moves can be reversed, so the previous states are the next ones*/
+    @Override
+    public LinkedList<State> previousStates() {
+        return nextStates();
+    }
+
+    /**@return the objective, with this sequence as objective*/
+    @Override
+    public State reverseState() {
+        return new StateTaquin(objective, sequence);
+    }
+
+    /**@return the board of the backward state, with the objective of this state*/
+    @Override
+    public State forwardState(State backward) {
+        return new StateTaquin(((StateTaquin) backward).sequence, objective);
+    }
+
+    /**a move costs 1*/
+    @Override
+    public int minimalCost() { return 1; }
+
     @Override
     public boolean checkState() {
-        success = sequence.equals(StateTaquin.objective);
+        success = sequence.equals(objective);
         return success;
     }
 
@@ -104,11 +293,17 @@ public class StateTaquin extends State{
         return sequence != null ? sequence.equals(that.sequence) : that.sequence == null;
     }
 
+    /**hash code consistent with equals (based on the sequence)*/
+    @Override
+    public int hashCode() {
+        return sequence != null ? sequence.hashCode() : 0;
+    }
+
     @Override
     public String toString() {
         String s = "";
-        for(int i=0; i<StateTaquin.dim*StateTaquin.dim; i+=StateTaquin.dim)
-            s = s + sequence.substring(i, i+StateTaquin.dim) + "\n";
+        for(int i=0; i<dim*dim; i+=dim)
+            s = s + sequence.substring(i, i+dim) + "\n";
         return "StateTaquin{" +
                 "sequence=\n" + s  +
                 ", f=" + f +
@@ -120,10 +315,67 @@ public class StateTaquin extends State{
 
 
     /**launch a resolution a display the solution*/
-    public static void main(String[] arg)
+    public static void main(String[] arg) throws java.io.IOException
     {
         String s = "_ACDEBKGNFJHIMOL";
         var l = AlgoAStar.algoASTAR(new StateTaquin(s));
         l.forEach(System.out::println);
+
+        System.out.println(AlgoAStar.algoASTAR(new StateTaquin(s), null));
+
+        System.out.println("-".repeat(30));
+        System.out.println("with linear conflicts");
+        StateTaquin.linearConflict = true;
+        System.out.println(AlgoAStar.algoASTAR(new StateTaquin(s), null));
+
+        System.out.println("-".repeat(30));
+        System.out.println("with ida*");
+        l = AlgoAStar.solve(new StateTaquin(s), SearchMode.IDASTAR);
+        System.out.println("solution in " + (l.size()-1) + " moves");
+
+        System.out.println("-".repeat(30));
+        System.out.println("with hda* (a worker by processor)");
+        l = AlgoAStar.solve(new StateTaquin(s), SearchMode.HDASTAR);
+        System.out.println("solution in " + (l.size()-1) + " moves");
+        l = AlgoAStar.solve(new StateTaquin(defaultObjective(4)), SearchMode.HDASTAR);
+        System.out.println("from the objective : solution in " + (l.size()-1) + " moves");
+
+        System.out.println("-".repeat(30));
+        System.out.println("with a bidirectional search");
+        l = AlgoAStar.solve(new StateTaquin(s), SearchMode.BIDIRECTIONAL);
+        System.out.println("solution in " + (l.size()-1) + " moves");
+
+        System.out.println("-".repeat(30));
+        System.out.println("with a weighted a* (w=2), then ARA* (w from 3 to 1)");
+        l = AnytimeAStar.algoWeightedASTAR(new StateTaquin(s), 2);
+        System.out.println("solution in " + (l.size()-1) + " moves");
+        AnytimeAStar.algoARASTAR(new StateTaquin(s), 3, 0.5, 1000, new SearchListener() {
+            @Override
+            public void onSolution(LinkedList<State> path, double bound) {
+                System.out.println("solution in " + (path.size()-1) + " moves, bound=" + bound);
+            }
+        });
+
+        System.out.println("-".repeat(30));
+        System.out.println("with the greedy best first search and a beam search (width 1000) of the searchCore folder");
+        l = AlgoAStar.algoGraphSearch(new StateTaquin(s), Frontier.bestFirst());
+        System.out.println("best first : solution in " + (l.size()-1) + " moves");
+        l = AlgoAStar.algoGraphSearch(new StateTaquin(s), Frontier.beam(1000), Visited.ancestors());
+        System.out.println("beam : " + (l == null ? "no solution" : "solution in " + (l.size()-1) + " moves"));
+
+        System.out.println("-".repeat(30));
+        System.out.println("with the pattern database taquin.pdb (built at the first launch)");
+        StateTaquin.patternDatabase = PatternDatabase.loadOrBuild(java.nio.file.Path.of("taquin.pdb"));
+        l = AlgoAStar.algoASTAR(new StateTaquin(s));
+        System.out.println("solution in " + (l.size()-1) + " moves");
+
+        System.out.println("-".repeat(30));
+        System.out.println("3x3 and 5x5 squares");
+        l = AlgoAStar.algoASTAR(new StateTaquin("DAB_ECGHF"));
+        System.out.println("3x3 : solution in " + (l.size()-1) + " moves");
+        l = AlgoAStar.algoASTAR(new StateTaquin("ABICDFLGJEKHMN_PRXWOUQVTS"));
+        System.out.println("5x5 : solution in " + (l.size()-1) + " moves");
+        System.out.println("BACDEFGHIJKLMNO_ can be solved ? " + new StateTaquin("BACDEFGHIJKLMNO_").isSolvable());
+        System.out.println("result of a* = " + AlgoAStar.algoASTAR(new StateTaquin("BACDEFGHIJKLMNO_")));
     }
 }
@@ -0,0 +1,190 @@
+package algo;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**a compact version of the "taquin" state, the 4x4 board is encoded in a long
+ * (16 nibbles, the nibble i contains the bloc at position i : 1 for A, 2 for B, ..., 15 for O, 0 for the empty bloc)
+ * the objective is the same as in StateTaquin :
+ * ABCD
+ * EFGH
+ * IJKL
+ * MNO_
+ * @author emmanueladam
+ * */
+public class StateTaquinLong extends State{
+    /**dim of the square*/
+    static final int dim = 4;
+    /**number of positions*/
+    static final int size = dim*dim;
+    /**representation of the objective in a long (bloc i+1 at position i, empty bloc at the end)*/
+    static final long objective = encode(StateTaquin.defaultObjective(dim));
+    /**board, 4 bits by position*/
+    final long board;
+    /**position of the empty bloc*/
+    final int blank;
+
+    /**@param sequence the board in the same format as in StateTaquin (ex. "_ACDEBKGNFJHIMOL")
+     * @throws IllegalArgumentException if the sequence is not a permutation of the 16 blocs of the objective*/
+    public StateTaquinLong(String sequence) {
+        this(encode(checked(sequence)), sequence.indexOf('_'));
+    }
+
+    /**@return the sequence, checked as in StateTaquin : 16 distinct blocs, A to O and _
+     * @throws IllegalArgumentException if the sequence is not a permutation of the objective*/
+    private static String checked(String sequence) {
+        if (sequence.length() != size)
+            throw new IllegalArgumentException("the sequence must have " + size + " blocs : " + sequence);
+        new StateTaquin(sequence, StateTaquin.defaultObjective(dim));
+        return sequence;
+    }
+
+    StateTaquinLong(long board, int blank) {
+        this.board = board;
+        this.blank = blank;
+    }
+
+    /**@return the long representing the sequence*/
+    static long encode(String sequence) {
+        long b = 0;
+        for(int i=0; i<size; i++)
+        {
+            char c = sequence.charAt(i);
+            long v = (c == '_') ? 0 : c - 'A' + 1;
+            b |= v << (4*i);
+        }
+        return b;
+    }
+
+    /**@return the bloc at the position pos (0 for the empty bloc)*/
+    int tileAt(int pos) {
+        return (int)(board >>> (4*pos)) & 0xF;
+    }
+
+    /**here, the heuristic is the sum of the manathan distances
+     * between each bloc and its final position (the bloc t has to reach the position t-1)
+     * */
+    @Override
+    int evaluate() {
+        h=0;
+        for(int pos=0; pos<size; pos++)
+        {
+            int t = tileAt(pos);
+            if (t != 0)
+                h += Math.abs(pos/dim - (t-1)/dim) + Math.abs(pos%dim - (t-1)%dim);
+        }
+        return h;
+    }
+
+    /**@return the state obtained by moving the bloc at position pos into the empty bloc*/
+    private StateTaquinLong slide(int pos) {
+        long t = (board >>> (4*pos)) & 0xFL;
+        // the empty bloc is 0, so only the moved bloc has to be cleared and set
+        long b = (board & ~(0xFL << (4*pos))) | (t << (4*blank));
+        return new StateTaquinLong(b, pos);
+    }
+
+    /**@return the position of the k-th neighbour of the empty bloc (0 right, 1 left, 2 down, 3 up), -1 if it is outside*/
+    private int around(int k) {
+        return switch (k) {
+            case 0 -> (blank+1)%dim != 0 ? blank+1 : -1;
+            case 1 -> blank%dim != 0 ? blank-1 : -1;
+            case 2 -> blank+dim < size ? blank+dim : -1;
+            default -> blank-dim >= 0 ? blank-dim : -1;
+        };
+    }
+
+    /**
+     * @return the states reachable by moving the empty square, each one is built when it is asked
+     * */
+    @Override
+    public Iterator<State> successors() {
+        return new Iterator<>() {
+            /**next neighbour to build, 4 if there is none*/
+            int k = skip(0);
+
+            private int skip(int from) {
+                while (from < 4 && around(from) == -1) from++;
+                return from;
+            }
+
+            public boolean hasNext() { return k < 4; }
+
+            public State next() {
+                if (k == 4) throw new NoSuchElementException();
+                State s = slide(around(k));
+                k = skip(k+1);
+                return s;
+            }
+        };
+    }
+
+    /**same parity check as in StateTaquin*/
+    @Override
+    public boolean isSolvable() {
+        return new StateTaquin(sequence()).isSolvable();
+    }
+
+    @Override
+    public boolean checkState() {
+        success = (board == objective);
+        return success;
+    }
+
+    /**cost between a parent and one of its 'child' = 1*/
+    @Override
+    public int costBetween(State p) { return 1; }
+
+    /**two states are equals if they represent the same board*/
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return board == ((StateTaquinLong) o).board;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(board);
+    }
+
+    /**@return the board in the same format as in StateTaquin*/
+    String sequence() {
+        var sb = new StringBuilder();
+        for(int pos=0; pos<size; pos++)
+        {
+            int t = tileAt(pos);
+            sb.append(t == 0 ? '_' : (char)('A' + t - 1));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        String seq = sequence();
+        String s = "";
+        for(int i=0; i<size; i+=dim)
+            s = s + seq.substring(i, i+dim) + "\n";
+        return "StateTaquinLong{" +
+                "sequence=\n" + s  +
+                ", f=" + f +
+                ", g=" + g +
+                ", h=" + h +
+                ", success=" + success +
+                '}';
+    }
+
+
+    /**launch a resolution a display the solution*/
+    public static void main(String[] arg)
+    {
+        String s = "_ACDEBKGNFJHIMOL";
+        var l = AlgoAStar.algoASTAR(new StateTaquinLong(s));
+        l.forEach(System.out::println);
+
+        System.out.println("-".repeat(30));
+        System.out.println("with the nodes in an arena");
+        l = TaquinArena.algoASTAR(new StateTaquinLong(s));
+        System.out.println("solution in " + (l.size()-1) + " moves");
+    }
+}
@@ -0,0 +1,240 @@
+package algo;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/** an a star search for the 4x4 taquin that allocates nothing while it expands the nodes.<br>
+ * the nodes are stored in parallel arrays (board encoded as in StateTaquinLong, position of the empty bloc,
+ * g, h, f, parent) and addressed by their index. the free nodes are in a binary heap of indexes
+ * (with the position of each node in the heap, so f can be decreased in place), and the index of a board
+ * is found in an open addressing table. the arrays are kept from one search to the other,
+ * so an arena can be reused to solve many boards.<br>
+ * the heuristic is the sum of the manhattan distances, updated from the parent for the moved bloc.
+ * @author emmanueladam */
+public class TaquinArena {
+	/** dim of the square */
+	static final int dim = StateTaquinLong.dim;
+	/** number of positions */
+	static final int size = StateTaquinLong.size;
+	/** MANHATTAN[t][pos] = distance of the bloc t at the position pos to its final position */
+	static final int[][] MANHATTAN = new int[size][size];
+	/** MOVES[pos] = positions next to pos */
+	static final int[][] MOVES = new int[size][];
+
+	static {
+		for (int t = 1; t < size; t++)
+			for (int pos = 0; pos < size; pos++)
+				MANHATTAN[t][pos] = Math.abs(pos / dim - (t - 1) / dim) + Math.abs(pos % dim - (t - 1) % dim);
+		for (int pos = 0; pos < size; pos++) {
+			int[] around = new int[4];
+			int nb = 0;
+			if ((pos + 1) % dim != 0) around[nb++] = pos + 1;
+			if (pos % dim != 0) around[nb++] = pos - 1;
+			if (pos + dim < size) around[nb++] = pos + dim;
+			if (pos - dim >= 0) around[nb++] = pos - dim;
+			MOVES[pos] = Arrays.copyOf(around, nb);
+		}
+	}
+
+	/** nb of nodes in the arena */
+	private int nbNodes;
+	private long[] boards;
+	private byte[] blanks;
+	private int[] g;
+	private int[] h;
+	private int[] f;
+	private int[] parent;
+	/** position of the node in the heap, -1 if it is closed */
+	private int[] heapPosition;
+
+	/** free nodes, ordered on f */
+	private int[] heap;
+	private int heapSize;
+
+	/** open addressing table board -> node (0 is never a board, it marks an empty slot) */
+	private long[] keys;
+	private int[] values;
+
+	/** @param capacity nb of nodes initially reserved */
+	public TaquinArena(int capacity) {
+		boards = new long[capacity];
+		blanks = new byte[capacity];
+		g = new int[capacity];
+		h = new int[capacity];
+		f = new int[capacity];
+		parent = new int[capacity];
+		heapPosition = new int[capacity];
+		heap = new int[capacity];
+		int tableSize = Integer.highestOneBit(Math.max(capacity, 8)) * 2;
+		keys = new long[tableSize];
+		values = new int[tableSize];
+	}
+
+	/** a* algorithm to find the best path between two states, with a new arena
+	 * @param start initial state
+	 * @return the path from start to the goal, null if there is no solution */
+	static LinkedList<State> algoASTAR(StateTaquinLong start) {
+		return new TaquinArena(1 << 16).solve(start);
+	}
+
+	/** a* algorithm to find the best path between two states, the nodes of a previous search are forgotten
+	 * @param start initial state
+	 * @return the path from start to the goal, null if there is no solution */
+	public LinkedList<State> solve(StateTaquinLong start) {
+		if (!start.isSolvable()) return null;
+		nbNodes = 0;
+		heapSize = 0;
+		Arrays.fill(keys, 0L);
+		start.evaluate();
+		push(add(start.board, start.blank, 0, start.h, -1));
+		while (heapSize > 0) {
+			int n = pop();
+			if (boards[n] == StateTaquinLong.objective) return rebuildPath(n);
+			long board = boards[n];
+			int blank = blanks[n];
+			for (int pos : MOVES[blank]) {
+				int t = (int) (board >>> (4 * pos)) & 0xF;
+				long next = (board & ~(0xFL << (4 * pos))) | ((long) t << (4 * blank));
+				int ng = g[n] + 1;
+				int m = find(next);
+				if (m == -1)
+					push(add(next, pos, ng, h[n] - MANHATTAN[t][pos] + MANHATTAN[t][blank], n));
+				else if (ng < g[m]) {
+					// better path to a known node : reopen it or raise it in the heap
+					g[m] = ng;
+					f[m] = ng + h[m];
+					parent[m] = n;
+					if (heapPosition[m] == -1) push(m);
+					else siftUp(heapPosition[m]);
+				}
+			}
+		}
+		return null;
+	}
+
+	/** @return the path from the start to the node n, as StateTaquinLong states */
+	private LinkedList<State> rebuildPath(int n) {
+		var l = new LinkedList<State>();
+		State child = null;
+		for (int i = n; i != -1; i = parent[i]) {
+			var s = new StateTaquinLong(boards[i], blanks[i]);
+			s.g = g[i];
+			s.h = h[i];
+			s.f = f[i];
+			s.success = (boards[i] == StateTaquinLong.objective);
+			if (child != null) child.setParent(s);
+			l.addFirst(s);
+			child = s;
+		}
+		return l;
+	}
+
+	/** @return nb of nodes created by the last search */
+	public int getNbNodes() { return nbNodes; }
+
+	/** add a node to the arena and to the table
+	 * @return the index of the node */
+	private int add(long board, int blank, int gn, int hn, int p) {
+		if (nbNodes == boards.length) grow();
+		int n = nbNodes++;
+		boards[n] = board;
+		blanks[n] = (byte) blank;
+		g[n] = gn;
+		h[n] = hn;
+		f[n] = gn + hn;
+		parent[n] = p;
+		heapPosition[n] = -1;
+		if (2 * nbNodes > keys.length) rehash();
+		int slot = slot(board);
+		keys[slot] = board;
+		values[slot] = n;
+		return n;
+	}
+
+	/** @return the node of the board, -1 if it is unknown */
+	private int find(long board) {
+		int slot = slot(board);
+		return keys[slot] == 0 ? -1 : values[slot];
+	}
+
+	/** @return the slot of the board in the table, or the empty slot where it should be placed */
+	private int slot(long board) {
+		int mask = keys.length - 1;
+		int slot = (int) ((board * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+		while (keys[slot] != 0 && keys[slot] != board) slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	private void grow() {
+		int capacity = boards.length * 2;
+		boards = Arrays.copyOf(boards, capacity);
+		blanks = Arrays.copyOf(blanks, capacity);
+		g = Arrays.copyOf(g, capacity);
+		h = Arrays.copyOf(h, capacity);
+		f = Arrays.copyOf(f, capacity);
+		parent = Arrays.copyOf(parent, capacity);
+		heapPosition = Arrays.copyOf(heapPosition, capacity);
+		heap = Arrays.copyOf(heap, capacity);
+	}
+
+	private void rehash() {
+		keys = new long[keys.length * 2];
+		values = new int[values.length * 2];
+		for (int n = 0; n < nbNodes; n++) {
+			int slot = slot(boards[n]);
+			keys[slot] = boards[n];
+			values[slot] = n;
+		}
+	}
+
+	/** the node with the smallest f comes first, then the deepest one */
+	private boolean before(int a, int b) {
+		return f[a] < f[b] || (f[a] == f[b] && g[a] > g[b]);
+	}
+
+	private void push(int n) {
+		heap[heapSize] = n;
+		heapPosition[n] = heapSize;
+		siftUp(heapSize++);
+	}
+
+	/** @return the node having a F minimal, removed from the heap */
+	private int pop() {
+		int n = heap[0];
+		heapPosition[n] = -1;
+		heapSize--;
+		if (heapSize > 0) {
+			heap[0] = heap[heapSize];
+			heapPosition[heap[0]] = 0;
+			siftDown(0);
+		}
+		return n;
+	}
+
+	private void siftUp(int i) {
+		int n = heap[i];
+		while (i > 0) {
+			int up = (i - 1) / 2;
+			if (!before(n, heap[up])) break;
+			heap[i] = heap[up];
+			heapPosition[heap[i]] = i;
+			i = up;
+		}
+		heap[i] = n;
+		heapPosition[n] = i;
+	}
+
+	private void siftDown(int i) {
+		int n = heap[i];
+		while (2 * i + 1 < heapSize) {
+			int child = 2 * i + 1;
+			if (child + 1 < heapSize && before(heap[child + 1], heap[child])) child++;
+			if (!before(heap[child], n)) break;
+			heap[i] = heap[child];
+			heapPosition[heap[i]] = i;
+			i = child;
+		}
+		heap[i] = n;
+		heapPosition[n] = i;
+	}
+}
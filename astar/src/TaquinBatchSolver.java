@@ -0,0 +1,241 @@
+package algo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/** resolution of many taquins (with the default objective) by a pool of threads sharing a cache of exact distances.<br>
+ * each solved path gives, for each of its states, its exact distance to the objective and the next state on the path.
+ * during a search, a state found in the cache has an exact h : when it is chosen with the smallest f, the path through it
+ * is the best one, and its end is read in the cache. the cache keeps a bounded nb of states (the oldest ones are removed).
+ * @author emmanueladam */
+public class TaquinBatchSolver implements AutoCloseable {
+	/** nb of parts of the cache, each part has its own lock */
+	private static final int SEGMENTS = 64;
+
+	/** exact distance to the objective, and next state on a best path */
+	private record Distance(int distance, String next) {}
+
+	/** threads of the solver */
+	private final ExecutorService executor;
+	/** bound on the nb of boards given to the threads and not yet solved (the caller waits when it is reached) */
+	private final Semaphore pending;
+	/** parts of the cache, indexed by the hash code of the sequence */
+	private final List<Map<String, Distance>> cache = new ArrayList<>();
+	/** nb of searches cut by the cache */
+	private final LongAdder hits = new LongAdder();
+
+	/** @param nbThreads nb of boards solved at the same time
+	 * @param cacheSize max nb of states kept in the cache */
+	public TaquinBatchSolver(int nbThreads, int cacheSize) {
+		executor = Executors.newFixedThreadPool(nbThreads);
+		pending = new Semaphore(2 * nbThreads);
+		int segmentSize = Math.max(1, cacheSize / SEGMENTS);
+		for (int i = 0; i < SEGMENTS; i++)
+			cache.add(new LinkedHashMap<>() {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Distance> eldest) {
+					return size() > segmentSize;
+				}
+			});
+	}
+
+	/** solve the boards
+	 * @param sequences boards to solve, in the format of StateTaquin
+	 * @return the paths from each board to the objective, in the order of the boards (null for a board without solution)*/
+	public List<LinkedList<State>> solveAll(Stream<String> sequences) throws InterruptedException {
+		var futures = new ArrayList<Future<LinkedList<State>>>();
+		for (var it = sequences.iterator(); it.hasNext(); ) {
+			String s = it.next();
+			pending.acquire();
+			futures.add(executor.submit(() -> {
+				try {
+					return solve(s);
+				} finally {
+					pending.release();
+				}
+			}));
+		}
+		var solutions = new ArrayList<LinkedList<State>>(futures.size());
+		for (var f : futures) {
+			try {
+				solutions.add(f.get());
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("resolution failed", e.getCause());
+			}
+		}
+		return solutions;
+	}
+
+	/** a* algorithm (see AlgoAStar) to find the best path from the board to the objective, using and filling the cache
+	 * @return the path from the board to the objective, null if there is no solution*/
+	public LinkedList<State> solve(String sequence) {
+		var start = new StateTaquin(sequence);
+		if (!start.isSolvable()) return null;
+		var freeNodes = new PriorityQueue<State>();
+		var freeIndex = new HashMap<State, State>();
+		var closedNodes = new HashMap<State, State>();
+		start.setG(0);
+		evaluate(start);
+		freeNodes.add(start);
+		freeIndex.put(start, start);
+		LinkedList<State> solution = null;
+		while (!freeNodes.isEmpty() && solution == null) {
+			// choose the node having a F minimal
+			var s = (StateTaquin) freeNodes.poll();
+			if (freeIndex.get(s) != s) continue;
+			freeIndex.remove(s);
+			// the goal is checked when the node is chosen, so that the path through a node of the cache is the best one
+			Distance d = get(s.sequence);
+			if (s.checkState()) solution = s.rebuildPath();
+			else if (d != null && s.h != d.distance()) {
+				// the state has been put in the cache by another thread after its evaluation : h becomes exact
+				s.h = d.distance();
+				s.updateF();
+				freeNodes.add(s);
+				freeIndex.put(s, s);
+			}
+			else if (d != null) {
+				hits.increment();
+				solution = s.rebuildPath();
+				appendEnd(solution);
+			}
+			else {
+				closedNodes.put(s, s);
+				for (State ndn : s.nextStates()) {
+					ndn.setParent(s);
+					ndn.setG(s.getG() + ndn.costBetween(s));
+					evaluate((StateTaquin) ndn);
+					// g is compared rather than f : h may have become exact since the known node was evaluated
+					State known = closedNodes.get(ndn);
+					if (known != null)
+						if (known.getG() > ndn.getG()) closedNodes.remove(ndn);
+						else continue;
+					else {
+						known = freeIndex.get(ndn);
+						if (known != null && known.getG() <= ndn.getG()) continue;
+					}
+					freeNodes.add(ndn);
+					freeIndex.put(ndn, ndn);
+				}
+			}
+		}
+		if (solution != null) record(solution);
+		return solution;
+	}
+
+	/** evaluate the state; h is exact if the state is in the cache */
+	private void evaluate(StateTaquin s) {
+		s.evaluate();
+		Distance d = get(s.sequence);
+		if (d != null) s.h = d.distance();
+		s.updateF();
+	}
+
+	/** complete the path from its last state (which is in the cache) to the objective,
+	 * following the next states of the cache, or with a new search if a state has left the cache */
+	private void appendEnd(LinkedList<State> path) {
+		var last = (StateTaquin) path.getLast();
+		while (!last.checkState()) {
+			Distance d = get(last.sequence);
+			if (d == null) {
+				var end = solve(last.sequence);
+				end.removeFirst();
+				for (State s : end) {
+					s.setParent(last);
+					s.setG(last.getG() + 1);
+					path.addLast(s);
+					last = (StateTaquin) s;
+				}
+				return;
+			}
+			var next = new StateTaquin(d.next());
+			next.setParent(last);
+			next.setG(last.getG() + 1);
+			path.addLast(next);
+			last = next;
+		}
+	}
+
+	/** put the states of the path in the cache */
+	private void record(LinkedList<State> path) {
+		int distance = path.size() - 1;
+		StateTaquin previous = null;
+		for (State s : path) {
+			var st = (StateTaquin) s;
+			if (previous != null) put(previous.sequence, new Distance(distance--, st.sequence));
+			previous = st;
+		}
+	}
+
+	private Map<String, Distance> segment(String sequence) {
+		return cache.get(Math.floorMod(sequence.hashCode(), SEGMENTS));
+	}
+
+	private Distance get(String sequence) {
+		var segment = segment(sequence);
+		synchronized (segment) {
+			return segment.get(sequence);
+		}
+	}
+
+	private void put(String sequence, Distance d) {
+		var segment = segment(sequence);
+		synchronized (segment) {
+			segment.put(sequence, d);
+		}
+	}
+
+	/** @return nb of searches cut by the cache */
+	public long getHits() { return hits.sum(); }
+
+	/** @return nb of states in the cache */
+	public int getCacheSize() {
+		int size = 0;
+		for (var segment : cache)
+			synchronized (segment) {
+				size += segment.size();
+			}
+		return size;
+	}
+
+	/** stop the threads, once the boards already given are solved */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+	/** solve boards built by moving the empty bloc from the objective, twice in a row */
+	public static void main(String[] arg) throws InterruptedException {
+		var random = new java.util.Random(1);
+		var boards = new ArrayList<String>();
+		for (int i = 0; i < 20; i++) {
+			var s = new StateTaquin(StateTaquin.defaultObjective(4));
+			for (int k = 0; k < 60; k++) {
+				var next = s.nextStates();
+				s = (StateTaquin) next.get(random.nextInt(next.size()));
+			}
+			boards.add(s.sequence);
+		}
+		try (var solver = new TaquinBatchSolver(Runtime.getRuntime().availableProcessors(), 1_000_000)) {
+			for (int round = 1; round <= 2; round++) {
+				long begin = System.currentTimeMillis();
+				var solutions = solver.solveAll(boards.stream());
+				System.out.println("round " + round + " : " + solutions.stream().mapToInt(l -> l.size() - 1).sum()
+						+ " moves in " + (System.currentTimeMillis() - begin) + " ms, cache hits=" + solver.getHits()
+						+ ", states in cache=" + solver.getCacheSize());
+			}
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package algo;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** resolution of a fixed set of 4x4 taquins by AlgoAStar
+ * (in the package algo, as algoASTAR is not public)
+ * @author emmanueladam */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AStarBenchmark {
+	/** boards to solve, from 12 to 40 moves */
+	@Param({"_ACDEBKGNFJHIMOL", "ABLDIKG_HECNMJFO", "FGADEJIC_MHLNKOB", "IE_KNOAHFCDJMLBG"})
+	public String sequence;
+
+	@Param({"ASTAR", "IDASTAR"})
+	public SearchMode mode;
+
+	@Benchmark
+	public LinkedList<algo.State> solve() {
+		return AlgoAStar.solve(new StateTaquin(sequence), mode);
+	}
+}
@@ -0,0 +1,21 @@
+package bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** launch the benchmarks with the gc profiler (allocation rate by operation);
+ * the arguments are the ones of JMH (ex. "AStarBenchmark -p mode=IDASTAR -rf json")
+ * @author emmanueladam */
+public class BenchmarkRunner {
+    public static void main(String... args) throws RunnerException, CommandLineOptionException {
+        var options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,74 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** resolution of the n-queens problem by DeepAndBreadthSearch.solve.<br>
+ * the classes of deepAndWideSearch are in the default package, that cannot be imported :
+ * they are reached through method handles, looked up once.
+ * @author emmanueladam */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueensBenchmark {
+    /** DeepAndBreadthSearch.solve(State, boolean), seen as (Object, boolean) -> Object */
+    private static final MethodHandle SOLVE;
+    /** new StateQueen(), seen as () -> Object */
+    private static final MethodHandle NEW_QUEEN;
+    /** StateQueen.nb = ..., seen as (int) -> void */
+    private static final MethodHandle SET_NB;
+
+    static {
+        try {
+            Class<?> state = Class.forName("State");
+            Class<?> queen = Class.forName("StateQueen");
+            Class<?> search = Class.forName("DeepAndBreadthSearch");
+            var lookup = MethodHandles.lookup();
+            SOLVE = lookup.findStatic(search, "solve", MethodType.methodType(state, state, boolean.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, boolean.class));
+            var constructor = queen.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            NEW_QUEEN = lookup.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+            var nb = queen.getDeclaredField("nb");
+            nb.setAccessible(true);
+            SET_NB = lookup.unreflectSetter(nb);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** size of the chessboard */
+    @Param({"8", "10", "12"})
+    public int n;
+
+    /** true for a breadth first search (slow from 10 queens) */
+    @Param({"false"})
+    public boolean breadth;
+
+    @Setup
+    public void setUp() throws Throwable {
+        SET_NB.invokeExact(n);
+    }
+
+    @Benchmark
+    public Object solve() throws Throwable {
+        Object s0 = NEW_QUEEN.invokeExact();
+        return (Object) SOLVE.invokeExact(s0, breadth);
+    }
+}
@@ -1,8 +1,23 @@
-import java.util.LinkedList;
+import search.Frontier;
+import search.GraphSearch;
+import search.SearchStats;
+import search.Visited;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * this class contains a generic algo for a "classic" search
- * using free nodes and closed ones
+ * using free nodes and closed ones (the loop is the one of GraphSearch, in the searchCore folder)
+ * (the states are compared on their hash code, see State.hashCode)
  * @author emmanueladam
  * */
 public class DeepAndBreadthSearch {
@@ -13,27 +28,233 @@ public class DeepAndBreadthSearch {
      * @return a solution state, or null */
     public static State solve(State s0, boolean breadth)
     {
-        State solution=null;
-        var freeNodes = new LinkedList<State>();
-        var closedNodes = new LinkedList<State>();
-        freeNodes.add(s0);
-        var success = false;
-        while (!freeNodes.isEmpty() && !success)
+        return solve(s0, breadth, new SearchStats());
+    }
+
+    /**generic algorithm
+     * @param s0 the initial state
+     * @param breadth true for a breath search, false for a deep search
+     * @param stats statistics updated by the search (states developed, built, met again, max nb of free nodes, duration)
+     * @return a solution state, or null */
+    public static State solve(State s0, boolean breadth, SearchStats stats)
+    {
+        return solve(s0, breadth ? Frontier.fifo() : Frontier.lifo(), stats);
+    }
+
+    /**greedy best first search : the free state with the smallest heuristic (see State.heuristic) is developed first
+     * @param s0 the initial state
+     * @return a solution state, or null */
+    public static State solveBestFirst(State s0)
+    {
+        return solve(s0, Frontier.<State>bestFirst());
+    }
+
+    /**beam search : the states are developed level by level, only the width best states of a level are kept
+     * (see State.heuristic), so the memory and the time are bounded but a solution can be missed;
+     * only the ancestors of a state are checked, no state is kept out of the beam
+     * @param s0 the initial state
+     * @param width max nb of states kept by level
+     * @return a solution state, or null */
+    public static State solveBeam(State s0, int width)
+    {
+        return GraphSearch.solve(s0, Frontier.<State>beam(width), Visited.ancestors(), new SearchStats());
+    }
+
+    /**generic algorithm (see GraphSearch in the searchCore folder)
+     * @param s0 the initial state
+     * @param freeNodes the free nodes, empty, they give the order of development of the states
+     * @return a solution state, or null */
+    public static State solve(State s0, Frontier<State> freeNodes)
+    {
+        return solve(s0, freeNodes, new SearchStats());
+    }
+
+    /**generic algorithm (see GraphSearch in the searchCore folder)
+     * @param s0 the initial state
+     * @param freeNodes the free nodes, empty, they give the order of development of the states
+     * @param stats statistics updated by the search
+     * @return a solution state, or null */
+    public static State solve(State s0, Frontier<State> freeNodes, SearchStats stats)
+    {
+        return GraphSearch.solve(s0, freeNodes, Visited.hashSet(), stats);
+    }
+
+    /**deep search limited in depth : the states deeper than the limit are not developed.
+     * only the current path is kept in memory (a state already on the path is not added again)
+     * @param s0 the initial state
+     * @param limit max nb of moves from the initial state
+     * @return a solution state at a depth &le; limit, or null */
+    public static State solveDepthLimited(State s0, int limit)
+    {
+        return new LimitedSearch(s0).solve(s0, limit);
+    }
+
+    /**iterative deepening deep search : deep searches limited to the depths 0, 1, 2... until a solution is found.
+     * as the breadth search, the solution found is one of the closest to the initial state,
+     * but the memory used is linear in the depth of the solution
+     * @param s0 the initial state
+     * @param maxDepth max depth tried
+     * @return a solution state, or null if there is no solution at a depth &le; maxDepth*/
+    public static State solveIterativeDeepening(State s0, int maxDepth)
+    {
+        var search = new LimitedSearch(s0);
+        State solution = null;
+        for (int limit = 0; limit <= maxDepth && solution == null; limit++)
         {
-            var node = freeNodes.removeFirst();
-            closedNodes.add(node);
-            var nodes = node.nextStates();
-            for (State s:nodes)
+            search.cutoff = false;
+            solution = search.solve(s0, limit);
+            // no state has been left by the limit : all the states have been explored
+            if (!search.cutoff) break;
+        }
+        return solution;
+    }
+
+    /**a deep search limited in depth, keeping the states of the current path*/
+    private static class LimitedSearch {
+        /**states of the current path*/
+        final HashSet<State> path = new HashSet<>();
+        /**true if a state has not been developed because of the limit*/
+        boolean cutoff;
+
+        LimitedSearch(State s0) {
+            path.add(s0);
+        }
+
+        /**@return a solution reachable from the node in at most limit moves, or null*/
+        State solve(State node, int limit)
+        {
+            if (node.isSuccess()) return node;
+            if (limit == 0)
+            {
+                cutoff = cutoff || !node.isLeaf();
+                return null;
+            }
+            State solution = null;
+            // the states are built one at a time : only the ones of the current path are in memory
+            for (var it = node.successors(); it.hasNext(); )
             {
-                if (!freeNodes.contains(s) && !closedNodes.contains(s)) {
-                    s.setParent(node);
-                    success = success || s.isSuccess();
-                    if(success) solution = s;
-                    if(breadth) freeNodes.addLast(s);
-                    else freeNodes.addFirst(s);
-                }
+                State s = it.next();
+                if (!path.add(s)) continue;
+                s.setParent(node);
+                solution = solve(s, limit - 1);
+                path.remove(s);
+                if (solution != null) break;
             }
+            return solution;
+        }
+    }
+
+    /**count the success states reachable from a state, by a deep search without detection of the duplicates :
+     * each success is counted once if the states form a tree (as the placements of the queens).
+     * the successors of the states of the current path are built when they are asked
+     * @param s0 the initial state
+     * @return nb of success states */
+    public static long count(State s0)
+    {
+        long nb = s0.isSuccess() ? 1 : 0;
+        var path = new ArrayDeque<Iterator<State>>();
+        path.push(s0.successors());
+        while (!path.isEmpty())
+        {
+            var it = path.peek();
+            if (!it.hasNext())
+            {
+                path.pop();
+                continue;
+            }
+            var s = it.next();
+            if (s.isSuccess()) nb++;
+            path.push(s.successors());
+        }
+        return nb;
+    }
+
+    /**count the success states reachable from a state (see count), in parallel :
+     * the states of the first levels are given to subtasks of a ForkJoinPool (an idle thread steals the waiting subtasks),
+     * the states below are counted by a sequential deep search
+     * @param s0 the initial state
+     * @param splitDepth nb of levels divided in subtasks
+     * @return nb of success states */
+    public static long countParallel(State s0, int splitDepth)
+    {
+        return countParallel(s0, splitDepth, DeepAndBreadthSearch::count);
+    }
+
+    /**count the success states reachable from a state, in parallel
+     * @param s0 the initial state
+     * @param splitDepth nb of levels divided in subtasks
+     * @param counter sequential count of the success states reachable from a state of the level splitDepth
+     * @return nb of success states */
+    public static long countParallel(State s0, int splitDepth, ToLongFunction<State> counter)
+    {
+        return countParallel(List.of(s0), splitDepth, counter)[0];
+    }
+
+    /**count the success states reachable from a state, in parallel, using a symmetry of the problem :
+     * each successor of s0 has a weight, a successor whose mirror image is also a successor is counted twice
+     * and its mirror image is not counted (weight 0), a successor that is its own mirror image is counted once
+     * @param s0 the initial state
+     * @param splitDepth nb of levels divided in subtasks
+     * @param counter sequential count of the success states reachable from a state of the level splitDepth
+     * @param weight weight of a successor of s0 (0, 1 or 2 for a mirror symmetry)
+     * @return nb of success states */
+    public static long countParallel(State s0, int splitDepth, ToLongFunction<State> counter, ToIntFunction<State> weight)
+    {
+        var roots = new ArrayList<State>();
+        var weights = new ArrayList<Integer>();
+        for (State s:s0.nextStates())
+        {
+            int w = weight.applyAsInt(s);
+            if (w == 0) continue;
+            roots.add(s);
+            weights.add(w);
+        }
+        long[] nbSolutions = countParallel(roots, Math.max(0, splitDepth - 1), counter);
+        long total = s0.isSuccess() ? 1 : 0;
+        for (int i = 0; i < nbSolutions.length; i++)
+            total += weights.get(i) * nbSolutions[i];
+        return total;
+    }
+
+    /**count the success states reachable from each state of a list, the states being divided in subtasks of a same pool
+     * @param roots the initial states
+     * @param splitDepth nb of levels divided in subtasks
+     * @param counter sequential count of the success states reachable from a state of the level splitDepth
+     * @return nb of success states for each root */
+    public static long[] countParallel(List<State> roots, int splitDepth, ToLongFunction<State> counter)
+    {
+        var tasks = new ArrayList<CountTask>();
+        for (State s:roots)
+            tasks.add(new CountTask(s, splitDepth, counter));
+        ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        return tasks.stream().mapToLong(CountTask::join).toArray();
+    }
+
+    /**count of the success states reachable from a state*/
+    @SuppressWarnings("serial")
+    private static class CountTask extends RecursiveTask<Long> {
+        final State state;
+        /**nb of levels still divided in subtasks*/
+        final int depth;
+        final ToLongFunction<State> counter;
+
+        CountTask(State state, int depth, ToLongFunction<State> counter) {
+            this.state = state;
+            this.depth = depth;
+            this.counter = counter;
+        }
+
+        @Override
+        protected Long compute()
+        {
+            if (depth <= 0 || state.isSuccess()) return counter.applyAsLong(state);
+            var tasks = new ArrayList<CountTask>();
+            for (State s:state.nextStates())
+                tasks.add(new CountTask(s, depth - 1, counter));
+            long nb = 0;
+            for (CountTask t:invokeAll(tasks))
+                nb += t.join();
+            return nb;
         }
-        return solution;
     }
 }
@@ -1,10 +1,13 @@
+import search.SearchState;
+
 import java.util.LinkedList;
 
 /**
  * abstract class to implent for using the DeepAndBreadth search algorithm
+ * (the path, the heuristic and the stream of successors are given by SearchState, see the searchCore folder)
  * @author emmanueladam
  * */
-public abstract class State {
+public abstract class State implements SearchState<State> {
 
     /** state is a leaf (impossible to reach other state)*/
     boolean leaf = false;
@@ -15,31 +18,35 @@ public abstract class State {
     /**parent of the state*/
     State parent;
 
-    /** return the path from start node to this node*/
-    public LinkedList<State> rebuildPath()
+    /**check is the state is a leaf*/
+    abstract void checkLeaf();
+
+    /**return the states reachable from the current state, all built at once
+     * (the states given by successors, that a subclass implements)*/
+    public LinkedList<State> nextStates()
     {
         var l = new LinkedList<State>();
-        State s = this;
-        while (s!=null)
-        {
-            l.addFirst(s);
-            s = s.getParent();
-        }
+        successors().forEachRemaining(l::add);
         return l;
     }
 
-    /**check is the state is a leaf*/
-    abstract void checkLeaf();
-
-    /**return the states reachable from the current state*/
-    public abstract LinkedList<State> nextStates();
-
     /**check is the state a success (= a leaf without conflict)*/
     public abstract boolean checkState();
 
+    /**two states are equals if they represent the same situation*/
+    @Override
+    public abstract boolean equals(Object o);
+
+    /**hash code consistent with equals, used to detect the states already met*/
+    @Override
+    public abstract int hashCode();
+
+    @Override
     public abstract boolean isSuccess();
     public abstract boolean isLeaf();
+    @Override
     public State getParent() { return parent; }
+    @Override
     public void setParent(State parent) { this.parent = parent; }
 
 }
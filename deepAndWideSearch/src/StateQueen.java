@@ -1,5 +1,8 @@
+import search.SearchStats;
+
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * class to illustrate the n-queens problem resolved by deep and bread search
@@ -48,6 +51,13 @@ public class StateQueen extends State{
         return eq;
     }
 
+    /** hash code of the chess, consistent with equals */
+    @Override
+    public int hashCode()
+    {
+        return Arrays.hashCode(chess);
+    }
+
     /**check if all the queens are placed without conflicts*/
     private void checkOk()
     {
@@ -79,27 +89,52 @@ public class StateQueen extends State{
         return success;
     }
 
-    /**compute the possible states for the next queen
-     * @return a list of state where the next queen can be placed without conflict */
-    public LinkedList<State> nextStates()
+    /**compute the possible states for the next queen, a state is built when it is asked
+     * @return the states where the next queen can be placed without conflict */
+    @Override
+    public Iterator<State> successors()
     {
-        var list = new LinkedList<State>();
-        if(noQueen<nb-1) {
-            for (int i = 0; i < nb; i++) {
-                StateQueen s = new StateQueen(noQueen + 1, chess, i);
-                s.checkOk();
-                if(s.ok)
-                {
-                    s.checkLeaf();
-                    s.checkState();
-                    list.addLast(s);
+        return new Iterator<>() {
+            /**next state to give, null if there is none*/
+            private StateQueen next = find(0);
+
+            /**@return the first state where the next queen is placed without conflict in a column &ge; col*/
+            private StateQueen find(int col)
+            {
+                if(noQueen>=nb-1) return null;
+                for (int i = col; i < nb; i++) {
+                    StateQueen s = new StateQueen(noQueen + 1, chess, i);
+                    s.checkOk();
+                    if(s.ok)
+                    {
+                        s.checkLeaf();
+                        s.checkState();
+                        return s;
+                    }
                 }
+                return null;
             }
-        }
-        return list;
+
+            public boolean hasNext() { return next != null; }
+
+            public State next()
+            {
+                if (next == null) throw new NoSuchElementException();
+                StateQueen s = next;
+                next = find(s.chess[s.noQueen] + 1);
+                return s;
+            }
+        };
     }
 
 
+    /**nb of queens still to place*/
+    @Override
+    public double heuristic()
+    {
+        return nb - noQueen - 1;
+    }
+
     public boolean isSuccess()
     {
         return success;
@@ -110,6 +145,24 @@ public class StateQueen extends State{
         return leaf;
     }
 
+    /**the mirror image of a solution (columns reversed) is a solution : the first queen is enough in the left half
+     * @param col column of the first queen
+     * @param nb size of the chessboard
+     * @return 2 for a first queen in the left half, 1 in the middle column, 0 in the right half (see DeepAndBreadthSearch.countParallel)*/
+    static int mirrorWeight(int col, int nb)
+    {
+        int mirror = nb - 1 - col;
+        return col < mirror ? 2 : col == mirror ? 1 : 0;
+    }
+
+    /**count all the solutions in parallel, the first queen being placed only in the left half and the middle column
+     * @param splitDepth nb of rows divided in subtasks*/
+    static long countParallel(int splitDepth)
+    {
+        return DeepAndBreadthSearch.countParallel(new StateQueen(), splitDepth, DeepAndBreadthSearch::count,
+                s -> mirrorWeight(((StateQueen) s).chess[0], nb));
+    }
+
     public String toString()
     {
         StringBuilder sbchess = new StringBuilder();
@@ -145,13 +198,33 @@ public class StateQueen extends State{
         System.out.println("-".repeat(30));
 
         System.out.println("recherche du pb des " + StateQueen.nb + " reines, parcours en largeur ");
-        System.out.println("patientez env. 10 sec pour 10 reines.");
+        System.out.println("patientez env. 200 ms pour 10 reines.");
         debut = System.currentTimeMillis();
-        solution = DeepAndBreadthSearch.solve(new StateQueen(), true);
+        var stats = new SearchStats();
+        solution = DeepAndBreadthSearch.solve(new StateQueen(), true, stats);
         if(solution!=null) System.out.println(solution);
         else System.out.println("aucune solution trouvee");
         fin = System.currentTimeMillis();
         System.out.println("temps passe en largeur = " + (fin - debut) + " ms");
+        System.out.println(stats);
+
+        System.out.println("-".repeat(30));
+
+        System.out.println("recherche du pb des " + StateQueen.nb + " reines, parcours en profondeur iteratif ");
+        debut = System.currentTimeMillis();
+        solution = DeepAndBreadthSearch.solveIterativeDeepening(new StateQueen(), StateQueen.nb);
+        if(solution!=null) System.out.println(solution);
+        else System.out.println("aucune solution trouvee");
+        fin = System.currentTimeMillis();
+        System.out.println("temps passe en profondeur iterative = " + (fin - debut) + " ms");
+
+        System.out.println("-".repeat(30));
+
+        debut = System.currentTimeMillis();
+        long nbSolutions = StateQueen.countParallel(3);
+        fin = System.currentTimeMillis();
+        System.out.println(StateQueen.nb + " reines : " + nbSolutions + " solutions en parallele (symetrie de la premiere ligne) en " + (fin - debut) + " ms");
+        System.out.println("sans la symetrie : " + DeepAndBreadthSearch.countParallel(new StateQueen(), 3) + " solutions");
     }
 
 }
@@ -0,0 +1,287 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+/**
+ * class to illustrate the n-queens problem with bit masks (n &le; 62):
+ * the columns and the two diagonals taken by the queens are bits of three longs.<br>
+ * a state of the row r keeps the masks of the cells attacked in the row r,
+ * so the free cells of a row are found with a single operation and a child is created without copy.<br>
+ * it can be used with DeepAndBreadthSearch, or directly with the static methods count and firstSolution.
+ * @author emmanueladam
+ * */
+public class StateQueenBits extends State {
+    /** size of the chessboard*/
+    final int nb;
+    /** n bits set to 1*/
+    final long all;
+    /** no of the row where the next queen will be placed (= nb of queens placed)*/
+    final int row;
+    /** column of the queen placed in the previous row, -1 for the initial state*/
+    final int col;
+    /** columns taken by the queens*/
+    final long cols;
+    /** cells of the row attacked by the diagonals going down to the left / to the right*/
+    final long left;
+    final long right;
+    /**heuristic, computed when it is asked for the first time*/
+    private double h = Double.NaN;
+
+    /**create an empty chessboard of StateQueen.nb x StateQueen.nb cells*/
+    StateQueenBits() {
+        this(StateQueen.nb);
+    }
+
+    /**create an empty chessboard of nb x nb cells*/
+    StateQueenBits(int nb) {
+        this(nb, 0, -1, 0, 0, 0);
+        if (nb < 1 || nb > 62) throw new IllegalArgumentException("the size must be between 1 and 62 : " + nb);
+    }
+
+    private StateQueenBits(int nb, int row, int col, long cols, long left, long right) {
+        this.nb = nb;
+        all = (1L << nb) - 1;
+        this.row = row;
+        this.col = col;
+        this.cols = cols;
+        this.left = left;
+        this.right = right;
+        checkLeaf();
+        checkState();
+    }
+
+    /**
+     * two states are equals if they have the same nb of queens and the same attacked cells :
+     * the remaining queens can be placed in the same way
+     * */
+    @Override
+    public boolean equals(Object o)
+    {
+        if (!(o instanceof StateQueenBits other)) return false;
+        return nb == other.nb && row == other.row && cols == other.cols && left == other.left && right == other.right;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        long h = cols * 31 + left;
+        h = h * 31 + right;
+        return Long.hashCode(h) * 31 + row;
+    }
+
+    /**check is the state is a leaf (all the queens are placed)*/
+    void checkLeaf()
+    {
+        leaf = row == nb;
+    }
+
+    /**check and return is the state a success (the queens are always placed without conflict)*/
+    public boolean checkState()
+    {
+        success = leaf;
+        return success;
+    }
+
+    /**compute the possible states for the next queen, a state is built when it is asked
+     * @return the states where the next queen can be placed without conflict */
+    @Override
+    public Iterator<State> successors()
+    {
+        return new Iterator<>() {
+            /**free cells of the row not given yet*/
+            private long free = ~(cols | left | right) & all;
+
+            public boolean hasNext() { return free != 0; }
+
+            public State next()
+            {
+                if (free == 0) throw new NoSuchElementException();
+                long bit = free & -free;
+                free ^= bit;
+                return new StateQueenBits(nb, row + 1, Long.numberOfTrailingZeros(bit),
+                        cols | bit, ((left | bit) << 1) & all, (right | bit) >>> 1);
+            }
+        };
+    }
+
+    /**the queens still to place, then the free cells of the next rows : the deepest states are preferred,
+     * then the ones that leave the most choices; infinite if a next row has no free cell (no solution can be reached)*/
+    @Override
+    public double heuristic()
+    {
+        if (Double.isNaN(h))
+        {
+            int minFree = nb;
+            int sumFree = 0;
+            for (int k = 0; k < nb - row && minFree > 0; k++)
+            {
+                int free = Long.bitCount(~(cols | ((left << k) & all) | (right >>> k)) & all);
+                minFree = Math.min(minFree, free);
+                sumFree += free;
+            }
+            h = minFree == 0 ? Double.POSITIVE_INFINITY : (nb - row) * nb * nb - sumFree;
+        }
+        return h;
+    }
+
+    public boolean isSuccess()
+    {
+        return success;
+    }
+
+    @Override
+    public boolean isLeaf() {
+        return leaf;
+    }
+
+    /**@return the columns of the queens placed, found by following the parents*/
+    int[] columns()
+    {
+        var chess = new int[nb];
+        Arrays.fill(chess, -1);
+        for (State s = this; s instanceof StateQueenBits q && q.row > 0; s = s.getParent())
+            chess[q.row - 1] = q.col;
+        return chess;
+    }
+
+    public String toString()
+    {
+        return "I'm queen " + (row - 1) + ", col of the queens = \n" + toString(columns()) + ", leaf=" + leaf;
+    }
+
+    /**@return the chessboard, a line by row*/
+    static String toString(int[] chess)
+    {
+        var sbchess = new StringBuilder();
+        for (int pos : chess)
+        {
+            var line = new byte[chess.length];
+            Arrays.fill(line, (byte) '_');
+            if (pos != -1) line[pos] = 'X';
+            sbchess.append(new String(line)).append('\n');
+        }
+        return sbchess.toString();
+    }
+
+    /**count all the solutions of the n-queens problem.
+     * a solution whose first queen is in the left half has a mirror whose first queen is in the right half :
+     * only the first queens of the left half (and of the middle column, if nb is odd) are tried
+     * @param nb size of the chessboard (&le; 62)*/
+    public static long count(int nb)
+    {
+        if (nb < 1 || nb > 62) throw new IllegalArgumentException("the size must be between 1 and 62 : " + nb);
+        long all = (1L << nb) - 1;
+        long nbSolutions = 0;
+        for (int c = 0; c < nb / 2; c++)
+            nbSolutions += count(all, 1L << c, (1L << (c + 1)) & all, (1L << c) >>> 1);
+        nbSolutions *= 2;
+        if (nb % 2 == 1)
+        {
+            int c = nb / 2;
+            nbSolutions += count(all, 1L << c, (1L << (c + 1)) & all, (1L << c) >>> 1);
+        }
+        return nbSolutions;
+    }
+
+    /**@return nb of ways to place the remaining queens, knowing the columns and the diagonals taken*/
+    static long count(long all, long cols, long left, long right)
+    {
+        if (cols == all) return 1;
+        long nbSolutions = 0;
+        long free = ~(cols | left | right) & all;
+        while (free != 0)
+        {
+            long bit = free & -free;
+            free ^= bit;
+            nbSolutions += count(all, cols | bit, ((left | bit) << 1) & all, (right | bit) >>> 1);
+        }
+        return nbSolutions;
+    }
+
+    /**count all the solutions of the n-queens problem with the threads of the ForkJoinPool :
+     * the placements of the first queens (in the left half of the first row, and in the middle column if nb is odd)
+     * are divided in subtasks, the rest of each placement is counted directly with the masks
+     * @param nb size of the chessboard (&le; 62)
+     * @param splitDepth nb of rows divided in subtasks (3 is enough to keep the threads busy)*/
+    public static long countParallel(int nb, int splitDepth)
+    {
+        var start = new StateQueenBits(nb);
+        ToLongFunction<State> counter = s -> {
+            var q = (StateQueenBits) s;
+            return count(q.all, q.cols, q.left, q.right);
+        };
+        // first queens of the left half counted twice, then of the middle column once
+        return DeepAndBreadthSearch.countParallel(start, splitDepth, counter,
+                s -> StateQueen.mirrorWeight(((StateQueenBits) s).col, nb));
+    }
+
+    /**find a solution of the n-queens problem
+     * @param nb size of the chessboard (&le; 62)
+     * @return the column of the queen of each row, null if there is no solution*/
+    public static int[] firstSolution(int nb)
+    {
+        if (nb < 1 || nb > 62) throw new IllegalArgumentException("the size must be between 1 and 62 : " + nb);
+        var chess = new int[nb];
+        return place(chess, 0, (1L << nb) - 1, 0, 0, 0) ? chess : null;
+    }
+
+    /**place the queens from the row, by backtracking
+     * @return true if the queens have been placed*/
+    private static boolean place(int[] chess, int row, long all, long cols, long left, long right)
+    {
+        if (cols == all) return true;
+        long free = ~(cols | left | right) & all;
+        while (free != 0)
+        {
+            long bit = free & -free;
+            free ^= bit;
+            chess[row] = Long.numberOfTrailingZeros(bit);
+            if (place(chess, row + 1, all, cols | bit, ((left | bit) << 1) & all, (right | bit) >>> 1)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * launch the resolution of the n-queens problem with the State API, then count all the solutions
+     * */
+    public static void main(String ...args)
+    {
+        StateQueen.nb = 10;
+        System.out.println("recherche du pb des " + StateQueen.nb + " reines (masques de bits), parcours en largeur ");
+        long debut = System.currentTimeMillis();
+        State solution = DeepAndBreadthSearch.solve(new StateQueenBits(), true);
+        if(solution!=null) System.out.println(solution);
+        else System.out.println("aucune solution trouvee");
+        System.out.println("temps passe en largeur = " + (System.currentTimeMillis() - debut) + " ms");
+
+        System.out.println("-".repeat(30));
+
+        debut = System.currentTimeMillis();
+        long nbStates = DeepAndBreadthSearch.count(new StateQueenBits());
+        System.out.println(StateQueen.nb + " reines : " + nbStates + " solutions (State API) en " + (System.currentTimeMillis() - debut) + " ms");
+        for (int n : new int[]{20, 30})
+        {
+            debut = System.currentTimeMillis();
+            solution = DeepAndBreadthSearch.solveBeam(new StateQueenBits(n), 100);
+            System.out.println(n + " reines, recherche en faisceau (largeur 100) : " + (solution != null ? "solution" : "aucune solution")
+                    + " en " + (System.currentTimeMillis() - debut) + " ms");
+            debut = System.currentTimeMillis();
+            solution = DeepAndBreadthSearch.solveBestFirst(new StateQueenBits(n));
+            System.out.println(n + " reines, meilleur d'abord : " + (solution != null ? "solution" : "aucune solution")
+                    + " en " + (System.currentTimeMillis() - debut) + " ms");
+        }
+        for (int n = 8; n <= 16; n++)
+        {
+            debut = System.currentTimeMillis();
+            long nbSolutions = count(n);
+            System.out.println(n + " reines : " + nbSolutions + " solutions en " + (System.currentTimeMillis() - debut) + " ms");
+        }
+        for (int n = 14; n <= 16; n++)
+        {
+            debut = System.currentTimeMillis();
+            long nbSolutions = countParallel(n, 3);
+            System.out.println(n + " reines : " + nbSolutions + " solutions en parallele en " + (System.currentTimeMillis() - debut) + " ms");
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package search;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * the free nodes of a search : the order in which they are given decides the kind of search (see GraphSearch)
+ * @param <S> the type of the states
+ * @author emmanueladam
+ * */
+public interface Frontier<S> {
+    /**add a state to develop*/
+    void add(S s);
+
+    /**@return the next state to develop, removed from the free nodes*/
+    S poll();
+
+    boolean isEmpty();
+
+    int size();
+
+    /**@return true if the states are developed by increasing key : the goal is then tested when a state is polled,
+     * so the first goal polled has the smallest key (for a*, the key f = g+h gives the best path, whatever the costs)*/
+    default boolean ordered() { return false; }
+
+    /**@return free nodes for a breadth search : the first state added is the first developed*/
+    static <S> Frontier<S> fifo()
+    {
+        return new DequeFrontier<>(true);
+    }
+
+    /**@return free nodes for a deep search : the last state added is the first developed*/
+    static <S> Frontier<S> lifo()
+    {
+        return new DequeFrontier<>(false);
+    }
+
+    /**@return free nodes ordered on a key computed when a state is added : the smallest key is the first developed*/
+    static <S> Frontier<S> priority(ToDoubleFunction<? super S> key)
+    {
+        return new PriorityFrontier<>(key);
+    }
+
+    /**@return free nodes for a greedy best first search : the state with the smallest heuristic is the first developed*/
+    static <S extends SearchState<S>> Frontier<S> bestFirst()
+    {
+        return priority(SearchState::heuristic);
+    }
+
+    /**@return free nodes for a beam search : the states are developed level by level,
+     * and only the width states of a level having the smallest key are kept.
+     * to search with Visited.ancestors (or none) : a hash set would keep the states dropped by the beam,
+     * so its memory would not be bounded, and a dropped state could not be met again by another path*/
+    static <S> Frontier<S> beam(int width, ToDoubleFunction<? super S> key)
+    {
+        if (width < 1) throw new IllegalArgumentException("the width of the beam must be positive : " + width);
+        return new BeamFrontier<>(width, key);
+    }
+
+    /**@return free nodes for a beam search on the heuristic of the states*/
+    static <S extends SearchState<S>> Frontier<S> beam(int width)
+    {
+        return beam(width, SearchState::heuristic);
+    }
+
+    /**a state with its key*/
+    record Entry<S>(double key, S state) {}
+
+    /**free nodes in a list, taken from its head*/
+    class DequeFrontier<S> implements Frontier<S> {
+        final ArrayDeque<S> freeNodes = new ArrayDeque<>();
+        /**true to add the states at the end of the list*/
+        final boolean fifo;
+
+        DequeFrontier(boolean fifo) {
+            this.fifo = fifo;
+        }
+
+        public void add(S s)
+        {
+            if (fifo) freeNodes.addLast(s);
+            else freeNodes.addFirst(s);
+        }
+
+        public S poll() { return freeNodes.pollFirst(); }
+
+        public boolean isEmpty() { return freeNodes.isEmpty(); }
+
+        public int size() { return freeNodes.size(); }
+    }
+
+    /**free nodes in a binary heap, the key of a state is computed once*/
+    class PriorityFrontier<S> implements Frontier<S> {
+        final ToDoubleFunction<? super S> key;
+        final PriorityQueue<Entry<S>> freeNodes = new PriorityQueue<>(Comparator.comparingDouble(Entry::key));
+
+        PriorityFrontier(ToDoubleFunction<? super S> key) {
+            this.key = key;
+        }
+
+        public void add(S s) { freeNodes.add(new Entry<>(key.applyAsDouble(s), s)); }
+
+        @Override
+        public boolean ordered() { return true; }
+
+        public S poll()
+        {
+            var e = freeNodes.poll();
+            return e == null ? null : e.state();
+        }
+
+        public boolean isEmpty() { return freeNodes.isEmpty(); }
+
+        public int size() { return freeNodes.size(); }
+    }
+
+    /**free nodes of a beam search : the states of the current level, and the best states of the next level*/
+    class BeamFrontier<S> implements Frontier<S> {
+        final int width;
+        final ToDoubleFunction<? super S> key;
+        /**states of the current level, the best first*/
+        final ArrayDeque<S> level = new ArrayDeque<>();
+        /**best states of the next level, the worst at the head (so it is removed when the beam is full)*/
+        final PriorityQueue<Entry<S>> nextLevel = new PriorityQueue<>(Comparator.comparingDouble((Entry<S> e) -> e.key()).reversed());
+
+        BeamFrontier(int width, ToDoubleFunction<? super S> key) {
+            this.width = width;
+            this.key = key;
+        }
+
+        public void add(S s)
+        {
+            nextLevel.add(new Entry<>(key.applyAsDouble(s), s));
+            if (nextLevel.size() > width) nextLevel.poll();
+        }
+
+        public S poll()
+        {
+            if (level.isEmpty())
+                while (!nextLevel.isEmpty()) level.addFirst(nextLevel.poll().state());
+            return level.pollFirst();
+        }
+
+        public boolean isEmpty() { return level.isEmpty() && nextLevel.isEmpty(); }
+
+        public int size() { return level.size() + nextLevel.size(); }
+    }
+}
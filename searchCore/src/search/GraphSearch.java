@@ -0,0 +1,88 @@
+package search;
+
+/**
+ * the generic search shared by the folders astar and deepAndWideSearch : free nodes and states already met.
+ * the kind of search is given by the free nodes (Frontier : fifo for a breadth search, lifo for a deep search,
+ * priority for a best first search, beam), the memory of the states met by Visited.
+ * @author emmanueladam
+ * */
+public class GraphSearch {
+
+    private GraphSearch() {}
+
+    /**generic algorithm
+     * @param s0 the initial state
+     * @param freeNodes the free nodes, empty, they give the order of development of the states
+     * @param visited the states met, empty
+     * @param stats statistics updated by the search, can be null
+     * @return a solution state (its path is given by rebuildPath), or null */
+    public static <S extends SearchState<S>> S solve(S s0, Frontier<S> freeNodes, Visited<S> visited, SearchStats stats)
+    {
+        return solve(s0, freeNodes, visited, stats, null);
+    }
+
+    /**generic algorithm : the goal is checked when a state is built, or when it is polled if the free nodes
+     * are ordered on a key (Frontier.ordered : with Frontier.priority on f and Visited.bestKey on f,
+     * it is the a* of the astar folder, and the path found is the best one even if the moves have different costs)
+     * @param s0 the initial state
+     * @param freeNodes the free nodes, empty, they give the order of development of the states
+     * @param visited the states met, empty
+     * @param stats statistics updated by the search, can be null
+     * @param listener listener informed of the progress of the search, can be null
+     * @return a solution state (its path is given by rebuildPath), or null */
+    public static <S extends SearchState<S>> S solve(S s0, Frontier<S> freeNodes, Visited<S> visited,
+                                                     SearchStats stats, SearchListener<? super S> listener)
+    {
+        if (stats == null) stats = new SearchStats();
+        long begin = System.nanoTime();
+        boolean goalOnPoll = freeNodes.ordered();
+        S solution = s0.isSuccess() ? s0 : null;
+        freeNodes.add(s0);
+        visited.add(s0);
+        while (solution == null && !freeNodes.isEmpty())
+        {
+            S node = freeNodes.poll();
+            // outdated entry, the state has been recorded again with a better key
+            if (!visited.poll(node)) continue;
+            if (goalOnPoll && node.isSuccess())
+            {
+                solution = node;
+                if (listener != null) listener.onGoal(node);
+                break;
+            }
+            stats.expanded++;
+            if (listener != null) listener.onExpand(node);
+            for (var it = node.successors(); it.hasNext() && solution == null; )
+            {
+                S s = it.next();
+                stats.generated++;
+                s.reached(node);
+                if (listener != null) listener.onGenerate(s);
+                if (!visited.add(s))
+                {
+                    stats.duplicates++;
+                    continue;
+                }
+                if (!goalOnPoll && s.isSuccess())
+                {
+                    solution = s;
+                    if (listener != null) listener.onGoal(s);
+                }
+                else freeNodes.add(s);
+            }
+            stats.peakFree = Math.max(stats.peakFree, freeNodes.size());
+        }
+        stats.reopened = visited.reopened();
+        stats.elapsed = System.nanoTime() - begin;
+        return solution;
+    }
+
+    /**generic algorithm with the states met kept in a hash set
+     * @param s0 the initial state
+     * @param freeNodes the free nodes, empty, they give the order of development of the states
+     * @return a solution state, or null */
+    public static <S extends SearchState<S>> S solve(S s0, Frontier<S> freeNodes)
+    {
+        return solve(s0, freeNodes, Visited.hashSet(), null);
+    }
+}
@@ -0,0 +1,13 @@
+package search;
+
+/**listener of a search, to follow its progress (all the methods do nothing by default)
+ * @param <S> the type of the states
+ * @author emmanueladam */
+public interface SearchListener<S> {
+    /**called when a state is chosen to be developed*/
+    default void onExpand(S s) {}
+    /**called when a state is built from the developed one (its parent is set, see SearchState.reached)*/
+    default void onGenerate(S s) {}
+    /**called when the goal is reached*/
+    default void onGoal(S s) {}
+}
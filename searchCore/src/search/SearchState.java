@@ -0,0 +1,53 @@
+package search;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * a state of a search, shared by the states of the astar and deepAndWideSearch folders
+ * @param <S> the type of the states
+ * @author emmanueladam
+ * */
+public interface SearchState<S extends SearchState<S>> {
+
+    /**@return the states reachable from this state, built one at a time when they are asked*/
+    Iterator<S> successors();
+
+    /**@return true if the state is a solution*/
+    boolean isSuccess();
+
+    S getParent();
+
+    void setParent(S parent);
+
+    /**called by the search when the state is built from parent (by default, the parent is set) :
+     * the state can then compute what depends on its parent*/
+    default void reached(S parent) { setParent(parent); }
+
+    /**@return estimation of the distance to a success, the smallest the best (0 by default)*/
+    default double heuristic() { return 0; }
+
+    /**@return the states reachable from this state, built one at a time when they are asked*/
+    default Stream<S> successorStream()
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(successors(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**@return the path from the initial state to this state*/
+    @SuppressWarnings("unchecked")
+    default LinkedList<S> rebuildPath()
+    {
+        var l = new LinkedList<S>();
+        S s = (S) this;
+        while (s != null)
+        {
+            l.addFirst(s);
+            s = s.getParent();
+        }
+        return l;
+    }
+}
@@ -0,0 +1,37 @@
+package search;
+
+/**statistics of a search (see GraphSearch), the fields can be set by the searches of a subclass
+ * @author emmanueladam */
+public class SearchStats {
+    /**nb of states developed*/
+    protected long expanded;
+    /**nb of states built*/
+    protected long generated;
+    /**nb of states built and rejected because they had already been met*/
+    protected long duplicates;
+    /**nb of developed states put back in the free nodes because a better path has been found (see Visited.bestKey)*/
+    protected long reopened;
+    /**max nb of free nodes*/
+    protected int peakFree;
+    /**duration of the search, in nanoseconds*/
+    protected long elapsed;
+
+    public long getExpanded() { return expanded; }
+    public long getGenerated() { return generated; }
+    public long getDuplicates() { return duplicates; }
+    public long getReopened() { return reopened; }
+    public int getPeakFree() { return peakFree; }
+    public long getElapsed() { return elapsed; }
+
+    @Override
+    public String toString() {
+        return "SearchStats{" +
+                "expanded=" + expanded +
+                ", generated=" + generated +
+                ", duplicates=" + duplicates +
+                ", reopened=" + reopened +
+                ", peakFree=" + peakFree +
+                ", elapsed=" + elapsed/1_000_000 + " ms" +
+                '}';
+    }
+}
@@ -0,0 +1,98 @@
+package search;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * the states already met by a search, to avoid developing a state twice
+ * @param <S> the type of the states
+ * @author emmanueladam
+ * */
+public interface Visited<S extends SearchState<S>> {
+    /**record a state (its parent is set)
+     * @return true if the state had not been met*/
+    boolean add(S s);
+
+    /**called when a state is taken from the free nodes, before it is developed
+     * @return false if the state has been recorded again since it was added to the free nodes
+     * (a better entry waits for it, this one is skipped)*/
+    default boolean poll(S s) { return true; }
+
+    /**@return nb of states recorded*/
+    int size();
+
+    /**@return nb of states developed, then recorded again with a better key*/
+    default long reopened() { return 0; }
+
+    /**@return the states met kept in a hash set (they must define equals and hashCode)*/
+    static <S extends SearchState<S>> Visited<S> hashSet()
+    {
+        var known = new HashSet<S>();
+        return new Visited<>() {
+            public boolean add(S s) { return known.add(s); }
+            public int size() { return known.size(); }
+        };
+    }
+
+    /**@return the states met kept in a hash map with their best key (for a*, the key is f) :
+     * a state met again is new if its key is smaller, even if it has already been developed (it is reopened);
+     * the entries replaced stay in the free nodes, and are skipped when they are polled*/
+    static <S extends SearchState<S>> Visited<S> bestKey(ToDoubleFunction<? super S> key)
+    {
+        // entry of smallest key of each state met
+        var best = new HashMap<S, S>();
+        // states developed
+        var closed = new HashSet<S>();
+        return new Visited<>() {
+            long reopened;
+
+            public boolean add(S s)
+            {
+                S known = best.get(s);
+                if (known != null)
+                {
+                    if (key.applyAsDouble(known) <= key.applyAsDouble(s)) return false;
+                    if (closed.remove(s)) reopened++;
+                }
+                best.put(s, s);
+                return true;
+            }
+
+            public boolean poll(S s)
+            {
+                if (best.get(s) != s) return false;
+                closed.add(s);
+                return true;
+            }
+
+            public int size() { return best.size(); }
+
+            public long reopened() { return reopened; }
+        };
+    }
+
+    /**@return no state recorded : each state is new (for a search in a tree, as the placements of queens)*/
+    static <S extends SearchState<S>> Visited<S> none()
+    {
+        return new Visited<>() {
+            public boolean add(S s) { return true; }
+            public int size() { return 0; }
+        };
+    }
+
+    /**@return a state is new if it is not one of its ancestors : no memory is used,
+     * but a state reached by two paths is developed twice (for a deep search)*/
+    static <S extends SearchState<S>> Visited<S> ancestors()
+    {
+        return new Visited<>() {
+            public boolean add(S s)
+            {
+                for (S a = s.getParent(); a != null; a = a.getParent())
+                    if (a.equals(s)) return false;
+                return true;
+            }
+            public int size() { return 0; }
+        };
+    }
+}